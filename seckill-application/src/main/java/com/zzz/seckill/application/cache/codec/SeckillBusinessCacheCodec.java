@@ -0,0 +1,209 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.cache.codec;
+
+import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.Schema;
+import io.protostuff.runtime.RuntimeSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 业务数据缓存的二进制编解码，格式为：魔数(1字节) + 格式版本(1字节) + 标识位(1字节) + 缓存版本号(8字节，可选) + Protostuff编码的数据
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SeckillBusinessCacheCodec {
+    private static final Logger logger = LoggerFactory.getLogger(SeckillBusinessCacheCodec.class);
+    /**
+     * 魔数，用于区分其他格式的数据
+     */
+    private static final byte MAGIC = (byte) 0xBC;
+    /**
+     * 当前的格式版本，格式发生不兼容的变化时递增，无法识别的版本按照缓存未命中处理
+     */
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = 3;
+    private static final int VERSION_LENGTH = 8;
+    //数据是否存在
+    private static final int FLAG_EXIST = 1;
+    //是否包含缓存版本号
+    private static final int FLAG_VERSION = 1 << 1;
+    //是否包含数据
+    private static final int FLAG_DATA = 1 << 2;
+
+    private static final ThreadLocal<LinkedBuffer> BUFFER_HOLDER = ThreadLocal.withInitial(() -> LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
+
+    /**
+     * 编码单个对象的缓存
+     */
+    public static <T> byte[] encode(SeckillBusinessCache<T> cache, Class<T> clazz){
+        Schema<T> schema = RuntimeSchema.getSchema(clazz);
+        LinkedBuffer buffer = BUFFER_HOLDER.get();
+        try {
+            ByteArrayOutputStream out = writeHeader(cache);
+            if (cache.getData() != null){
+                ProtostuffIOUtil.writeTo(out, cache.getData(), schema, buffer);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("encode cache failed", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * 编码对象列表的缓存
+     */
+    public static <T> byte[] encodeList(SeckillBusinessCache<List<T>> cache, Class<T> clazz){
+        Schema<T> schema = RuntimeSchema.getSchema(clazz);
+        LinkedBuffer buffer = BUFFER_HOLDER.get();
+        try {
+            ByteArrayOutputStream out = writeHeader(cache);
+            if (cache.getData() != null){
+                ProtostuffIOUtil.writeListTo(out, cache.getData(), schema, buffer);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("encode cache list failed", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * 解码单个对象的缓存，数据格式无法识别时返回null
+     */
+    public static <T> SeckillBusinessCache<T> decode(byte[] bytes, Class<T> clazz){
+        SeckillBusinessCache<T> cache = readHeader(bytes);
+        if (cache == null){
+            return null;
+        }
+        int offset = getDataOffset(cache);
+        if (!hasData(bytes)){
+            return cache;
+        }
+        try {
+            Schema<T> schema = RuntimeSchema.getSchema(clazz);
+            T data = schema.newMessage();
+            ProtostuffIOUtil.mergeFrom(bytes, offset, bytes.length - offset, data, schema);
+            cache.setData(data);
+            return cache;
+        } catch (Exception e) {
+            logger.error("SeckillBusinessCacheCodec|解码缓存数据异常|{}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 解码对象列表的缓存，数据格式无法识别时返回null
+     */
+    public static <T> SeckillBusinessCache<List<T>> decodeList(byte[] bytes, Class<T> clazz){
+        SeckillBusinessCache<List<T>> cache = readHeader(bytes);
+        if (cache == null){
+            return null;
+        }
+        int offset = getDataOffset(cache);
+        if (!hasData(bytes)){
+            return cache;
+        }
+        //空列表不会写入任何数据
+        if (offset == bytes.length){
+            cache.setData(new ArrayList<>());
+            return cache;
+        }
+        try {
+            Schema<T> schema = RuntimeSchema.getSchema(clazz);
+            List<T> data = ProtostuffIOUtil.parseListFrom(new ByteArrayInputStream(bytes, offset, bytes.length - offset), schema);
+            cache.setData(data);
+            return cache;
+        } catch (Exception e) {
+            logger.error("SeckillBusinessCacheCodec|解码缓存列表数据异常|{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static ByteArrayOutputStream writeHeader(SeckillBusinessCache<?> cache) throws IOException {
+        int flags = 0;
+        if (cache.isExist()){
+            flags |= FLAG_EXIST;
+        }
+        if (cache.getVersion() != null){
+            flags |= FLAG_VERSION;
+        }
+        if (cache.getData() != null){
+            flags |= FLAG_DATA;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeByte(MAGIC);
+        dataOut.writeByte(FORMAT_VERSION);
+        dataOut.writeByte(flags);
+        if (cache.getVersion() != null){
+            dataOut.writeLong(cache.getVersion());
+        }
+        dataOut.flush();
+        return out;
+    }
+
+    private static <T> SeckillBusinessCache<T> readHeader(byte[] bytes){
+        if (bytes == null || bytes.length < HEADER_LENGTH){
+            return null;
+        }
+        if (bytes[0] != MAGIC || bytes[1] != FORMAT_VERSION){
+            logger.info("SeckillBusinessCacheCodec|无法识别的缓存数据格式|{}|{}", bytes[0], bytes[1]);
+            return null;
+        }
+        int flags = bytes[2];
+        SeckillBusinessCache<T> cache = new SeckillBusinessCache<>();
+        cache.setExist((flags & FLAG_EXIST) != 0);
+        if ((flags & FLAG_VERSION) != 0){
+            if (bytes.length < HEADER_LENGTH + VERSION_LENGTH){
+                return null;
+            }
+            cache.setVersion(readLong(bytes, HEADER_LENGTH));
+        }
+        return cache;
+    }
+
+    private static boolean hasData(byte[] bytes){
+        return (bytes[2] & FLAG_DATA) != 0;
+    }
+
+    private static int getDataOffset(SeckillBusinessCache<?> cache){
+        return cache.getVersion() == null ? HEADER_LENGTH : HEADER_LENGTH + VERSION_LENGTH;
+    }
+
+    private static long readLong(byte[] bytes, int offset){
+        long value = 0;
+        for (int i = 0; i < VERSION_LENGTH; i++){
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
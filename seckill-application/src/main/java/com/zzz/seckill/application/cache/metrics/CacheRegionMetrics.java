@@ -0,0 +1,116 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.cache.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 单个缓存区域的指标
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class CacheRegionMetrics {
+    private static final String METRIC_REQUESTS = "seckill.cache.requests";
+    private static final String METRIC_LOAD = "seckill.cache.load";
+
+    //按结果统计的读请求
+    private final Counter localHit;
+    private final Counter distributedHit;
+    private final Counter distributedMiss;
+    private final Counter retryLater;
+    //客户端版本号比本地缓存新，重新读取分布式缓存
+    private final Counter versionRefetch;
+    //更新分布式缓存时未获取到分布式锁
+    private final Counter lockFailure;
+    //从分布式缓存、数据库加载的耗时
+    private final Timer distributedLoad;
+    private final Timer dbLoad;
+
+    CacheRegionMetrics(MeterRegistry meterRegistry, String region) {
+        this.localHit = requests(meterRegistry, region, "local_hit");
+        this.distributedHit = requests(meterRegistry, region, "distributed_hit");
+        this.distributedMiss = requests(meterRegistry, region, "distributed_miss");
+        this.retryLater = requests(meterRegistry, region, "retry_later");
+        this.versionRefetch = Counter.builder("seckill.cache.version.refetch")
+                .description("local cache entries older than the client version")
+                .tag("region", region)
+                .register(meterRegistry);
+        this.lockFailure = Counter.builder("seckill.cache.lock.failure")
+                .description("distributed cache updates that failed to acquire the lock")
+                .tag("region", region)
+                .register(meterRegistry);
+        this.distributedLoad = load(meterRegistry, region, "distributed");
+        this.dbLoad = load(meterRegistry, region, "db");
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String region, String result){
+        return Counter.builder(METRIC_REQUESTS)
+                .description("cache reads by result")
+                .tag("region", region)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer load(MeterRegistry meterRegistry, String region, String source){
+        return Timer.builder(METRIC_LOAD)
+                .description("cache load latency by source")
+                .tag("region", region)
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void localHit(){
+        localHit.increment();
+    }
+
+    public void versionRefetch(){
+        versionRefetch.increment();
+    }
+
+    public void retryLater(){
+        retryLater.increment();
+    }
+
+    public void lockFailure(){
+        lockFailure.increment();
+    }
+
+    /**
+     * 记录读取分布式缓存的耗时和结果
+     */
+    public void distributedLoad(long startNanos, boolean hit){
+        distributedLoad.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (hit){
+            distributedHit.increment();
+        }else{
+            distributedMiss.increment();
+        }
+    }
+
+    /**
+     * 记录从数据库加载并写入分布式缓存的耗时
+     */
+    public void dbLoad(long startNanos){
+        dbLoad.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
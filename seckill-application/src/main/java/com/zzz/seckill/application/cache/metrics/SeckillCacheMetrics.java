@@ -0,0 +1,73 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.cache.metrics;
+
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheManager;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 二级缓存指标，按缓存区域注册，本地缓存的命中、淘汰和条目数直接读取本地缓存的统计信息
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Component
+public class SeckillCacheMetrics {
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private LocalCacheManager localCacheManager;
+
+    private final Map<String, CacheRegionMetrics> regions = new ConcurrentHashMap<>();
+
+    /**
+     * 获取缓存区域的指标，缓存服务在初始化时获取一次并持有，热点路径上不再查找Meter
+     */
+    public CacheRegionMetrics forRegion(String region){
+        return regions.computeIfAbsent(region, (key) -> {
+            this.bindLocalCache(key, localCacheManager.getCache(key));
+            return new CacheRegionMetrics(meterRegistry, key);
+        });
+    }
+
+    private void bindLocalCache(String region, LocalCacheService<?, ?> localCacheService){
+        FunctionCounter.builder("seckill.cache.local.hits", localCacheService, (cache) -> cache.stats().getHitCount())
+                .description("local cache hits reported by the cache implementation")
+                .tag("region", region)
+                .register(meterRegistry);
+        FunctionCounter.builder("seckill.cache.local.misses", localCacheService, (cache) -> cache.stats().getMissCount())
+                .description("local cache misses reported by the cache implementation")
+                .tag("region", region)
+                .register(meterRegistry);
+        FunctionCounter.builder("seckill.cache.local.evictions", localCacheService, (cache) -> cache.stats().getEvictionCount())
+                .description("local cache evictions")
+                .tag("region", region)
+                .register(meterRegistry);
+        Gauge.builder("seckill.cache.local.size", localCacheService, LocalCacheService::size)
+                .description("local cache entries")
+                .tag("region", region)
+                .register(meterRegistry);
+    }
+}
@@ -28,6 +28,8 @@ import com.zzz.seckill.application.cache.model.common.SeckillCommonCache;
 public class SeckillBusinessCache<T> extends SeckillCommonCache {
 
     private T data;
+    //当前版本数据编码后的响应，不参与序列化
+    private transient volatile SeckillEncodedResponse encodedResponse;
 
     public SeckillBusinessCache<T> with(T data){
         this.data = data;
@@ -57,4 +59,12 @@ public class SeckillBusinessCache<T> extends SeckillCommonCache {
     public void setData(T data) {
         this.data = data;
     }
+
+    public SeckillEncodedResponse getEncodedResponse() {
+        return encodedResponse;
+    }
+
+    public void setEncodedResponse(SeckillEncodedResponse encodedResponse) {
+        this.encodedResponse = encodedResponse;
+    }
 }
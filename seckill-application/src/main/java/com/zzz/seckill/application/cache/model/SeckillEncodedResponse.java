@@ -0,0 +1,43 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.cache.model;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 编码后的响应数据，与对应版本的缓存数据一起缓存
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SeckillEncodedResponse {
+    //JSON编码后的响应数据
+    private final byte[] body;
+    //gzip压缩后的响应数据，数据较小时不压缩，为null
+    private final byte[] gzipBody;
+
+    public SeckillEncodedResponse(byte[] body, byte[] gzipBody) {
+        this.body = body;
+        this.gzipBody = gzipBody;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+}
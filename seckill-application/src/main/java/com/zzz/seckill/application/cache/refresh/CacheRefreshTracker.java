@@ -0,0 +1,125 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.cache.refresh;
+
+import com.zzz.seckill.infrastructure.utils.time.SystemClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 记录某个缓存区域中的热点key，在分布式缓存或者本地缓存过期之前提前刷新
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class CacheRefreshTracker<K> {
+    private final Logger logger = LoggerFactory.getLogger(CacheRefreshTracker.class);
+    //缓存区域
+    private final String region;
+    //本地缓存写入后的过期时间，单位毫秒
+    private final long localExpireMillis;
+    //从数据库重新加载数据到分布式缓存和本地缓存，参数为key和触发刷新的版本号
+    private final BiConsumer<K, Long> distributedRefresher;
+    //从分布式缓存重新加载数据到本地缓存
+    private final Consumer<K> localRefresher;
+    //是否开启提前刷新，未开启时不跟踪key
+    private final boolean enabled;
+    //正在跟踪的key
+    private final ConcurrentMap<K, RefreshEntry> entries = new ConcurrentHashMap<>();
+
+    public CacheRefreshTracker(String region, long localExpireMillis, BiConsumer<K, Long> distributedRefresher, Consumer<K> localRefresher, boolean enabled) {
+        this.region = region;
+        this.localExpireMillis = localExpireMillis;
+        this.distributedRefresher = distributedRefresher;
+        this.localRefresher = localRefresher;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 记录key被访问，只更新已经跟踪的key，不在读取路径上创建对象
+     */
+    public void touch(K key) {
+        RefreshEntry entry = entries.get(key);
+        if (entry != null){
+            entry.lastAccessTime = SystemClock.millisClock().now();
+        }
+    }
+
+    /**
+     * 本地缓存已经更新，version为缓存数据的版本号，也就是数据从数据库加载到分布式缓存的时间
+     */
+    public void loaded(K key, Long version) {
+        if (!enabled){
+            return;
+        }
+        long now = SystemClock.millisClock().now();
+        RefreshEntry entry = entries.computeIfAbsent(key, (k) -> new RefreshEntry(now));
+        entry.version = version == null ? now : version;
+        entry.localWriteTime = now;
+    }
+
+    /**
+     * 检查所有跟踪的key，长时间未被访问的key不再跟踪，即将过期的key提前刷新
+     */
+    void refresh(long distributedExpireMillis, long distributedAheadMillis, long localAheadMillis, long idleMillis) {
+        Iterator<Map.Entry<K, RefreshEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()){
+            Map.Entry<K, RefreshEntry> mapEntry = iterator.next();
+            K key = mapEntry.getKey();
+            RefreshEntry entry = mapEntry.getValue();
+            long now = SystemClock.millisClock().now();
+            if (now - entry.lastAccessTime > idleMillis){
+                iterator.remove();
+                continue;
+            }
+            try {
+                //分布式缓存即将过期，从数据库重新加载
+                if (now - entry.version >= distributedExpireMillis - distributedAheadMillis){
+                    logger.info("CacheRefresh|提前刷新分布式缓存|{}|{}", region, key);
+                    distributedRefresher.accept(key, entry.version);
+                }
+                //本地缓存即将过期，从分布式缓存重新加载
+                else if (now - entry.localWriteTime >= localExpireMillis - localAheadMillis){
+                    localRefresher.accept(key);
+                }
+            } catch (Exception e) {
+                logger.error("CacheRefresh|提前刷新缓存异常|{}|{}|{}", region, key, e.getMessage());
+            }
+        }
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    private static class RefreshEntry {
+        private volatile long lastAccessTime;
+        private volatile long version;
+        private volatile long localWriteTime;
+
+        RefreshEntry(long now) {
+            this.lastAccessTime = now;
+        }
+    }
+}
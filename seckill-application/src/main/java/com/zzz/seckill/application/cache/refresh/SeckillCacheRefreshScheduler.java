@@ -0,0 +1,111 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.cache.refresh;
+
+import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 缓存提前刷新调度器，根据缓存数据的版本号在分布式缓存和本地缓存过期之前刷新热点key
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Component
+public class SeckillCacheRefreshScheduler {
+    private final Logger logger = LoggerFactory.getLogger(SeckillCacheRefreshScheduler.class);
+    private static final String THREAD_NAME = "seckill-cache-refresh";
+
+    @Autowired
+    private LocalCacheProperties localCacheProperties;
+    //是否开启提前刷新
+    @Value("${cache.refresh.enabled:true}")
+    private boolean enabled;
+    //检查的时间间隔，单位毫秒
+    @Value("${cache.refresh.interval:500}")
+    private long interval;
+    //分布式缓存过期前多久开始刷新，单位毫秒
+    @Value("${cache.refresh.distributed.ahead:30000}")
+    private long distributedAhead;
+    //本地缓存过期前多久开始刷新，单位毫秒
+    @Value("${cache.refresh.local.ahead:1000}")
+    private long localAhead;
+    //超过多久未被访问的key不再刷新，单位毫秒
+    @Value("${cache.refresh.idle:30000}")
+    private long idle;
+
+    private final List<CacheRefreshTracker<?>> trackers = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService refreshScheduler;
+
+    @PostConstruct
+    public void init(){
+        if (!enabled){
+            return;
+        }
+        refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshScheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 注册需要提前刷新的缓存区域
+     */
+    public <K> CacheRefreshTracker<K> register(String region, BiConsumer<K, Long> distributedRefresher, Consumer<K> localRefresher){
+        long localExpireMillis = localCacheProperties.getRegion(region).getExpireAfterWrite();
+        CacheRefreshTracker<K> tracker = new CacheRefreshTracker<>(region, localExpireMillis, distributedRefresher, localRefresher, enabled);
+        if (enabled){
+            trackers.add(tracker);
+        }
+        return tracker;
+    }
+
+    private void refresh(){
+        long distributedExpireMillis = TimeUnit.SECONDS.toMillis(SeckillConstants.FIVE_MINUTES);
+        for (CacheRefreshTracker<?> tracker : trackers){
+            try {
+                tracker.refresh(distributedExpireMillis, distributedAhead, localAhead, idle);
+            } catch (Exception e) {
+                logger.error("CacheRefresh|刷新缓存区域异常|{}|{}", tracker.getRegion(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy(){
+        if (refreshScheduler != null){
+            refreshScheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.cache.refresh;
+
+import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import com.zzz.seckill.infrastructure.lock.DistributedLock;
+import com.zzz.seckill.infrastructure.lock.factoty.DistributedLockFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 缓存区域的本地缓存、提前刷新和本地缓存同步，由各个缓存服务按缓存区域、key的解析方式和加载方法创建
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SeckillCacheRegion<K, V> {
+    private final Logger logger = LoggerFactory.getLogger(SeckillCacheRegion.class);
+    //提前刷新分布式缓存时获取分布式锁使用
+    private static final String SECKILL_CACHE_REFRESH_LOCK_KEY = "SECKILL_CACHE_REFRESH_LOCK_KEY_";
+    //缓存区域
+    private final String region;
+    //将广播消息中的key解析为缓存的key
+    private final Function<String, K> keyParser;
+    //只读取分布式缓存中的数据，不访问数据库
+    private final Function<K, SeckillBusinessCache<V>> distributedReader;
+    //读取分布式缓存中的数据并更新本地缓存，分布式缓存中没有数据时从数据库加载
+    private final Function<K, SeckillBusinessCache<V>> distributedLoader;
+    //从数据库重新加载数据到分布式缓存
+    private final Function<K, SeckillBusinessCache<V>> databaseLoader;
+    private final DistributedLockFactory distributedLockFactory;
+    private LocalCacheService<K, SeckillBusinessCache<V>> localCacheService;
+    private CacheRefreshTracker<K> refreshTracker;
+
+    SeckillCacheRegion(String region, Function<String, K> keyParser, Function<K, SeckillBusinessCache<V>> distributedReader,
+                       Function<K, SeckillBusinessCache<V>> distributedLoader, Function<K, SeckillBusinessCache<V>> databaseLoader,
+                       DistributedLockFactory distributedLockFactory) {
+        this.region = region;
+        this.keyParser = keyParser;
+        this.distributedReader = distributedReader;
+        this.distributedLoader = distributedLoader;
+        this.databaseLoader = databaseLoader;
+        this.distributedLockFactory = distributedLockFactory;
+    }
+
+    void init(LocalCacheService<K, SeckillBusinessCache<V>> localCacheService, CacheRefreshTracker<K> refreshTracker){
+        this.localCacheService = localCacheService;
+        this.refreshTracker = refreshTracker;
+    }
+
+    public LocalCacheService<K, SeckillBusinessCache<V>> getLocalCacheService() {
+        return localCacheService;
+    }
+
+    public CacheRefreshTracker<K> getRefreshTracker() {
+        return refreshTracker;
+    }
+
+    /**
+     * 收到缓存更新的广播，本地缓存的版本落后时从分布式缓存重新加载，加载失败则删除本地缓存
+     */
+    void onCacheUpdated(String message, Long version) {
+        K key = keyParser.apply(message);
+        if (!isStale(localCacheService.getIfPresent(key), version)){
+            return;
+        }
+        logger.info("LocalCacheSync|同步本地缓存|{}|{}|{}", region, key, version);
+        distributedLoader.apply(key);
+        if (isStale(localCacheService.getIfPresent(key), version)){
+            localCacheService.invalidate(key);
+        }
+    }
+
+    /**
+     * 本地缓存存在并且版本落后
+     */
+    private boolean isStale(SeckillBusinessCache<V> cache, Long version) {
+        if (cache == null){
+            return false;
+        }
+        return version == null || cache.getVersion() == null || cache.getVersion() < version;
+    }
+
+    /**
+     * 分布式缓存即将过期，从数据库重新加载数据，并同步更新本地缓存
+     * 各个节点根据相同的版本号在同一时间触发刷新，只有获取到分布式锁的节点访问数据库，其他节点不等待，收到广播后更新本地缓存
+     */
+    void refreshDistributedCache(K key, Long version) {
+        //其他节点已经刷新过分布式缓存，只更新本地缓存
+        if (isRefreshed(key, version)){
+            distributedLoader.apply(key);
+            return;
+        }
+        DistributedLock lock = distributedLockFactory.getDistributedLock(SECKILL_CACHE_REFRESH_LOCK_KEY.concat(region).concat("_").concat(String.valueOf(key)));
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(0, 5, TimeUnit.SECONDS);
+            if (!locked){
+                logger.info("CacheRefresh|其他节点正在刷新分布式缓存|{}|{}", region, key);
+                return;
+            }
+            //获取锁之前其他节点可能已经完成刷新
+            if (!isRefreshed(key, version)){
+                databaseLoader.apply(key);
+            }
+            distributedLoader.apply(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("CacheRefresh|刷新分布式缓存被中断|{}|{}", region, key);
+        } finally {
+            if (locked){
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 分布式缓存中的版本号比触发刷新的版本号新
+     */
+    private boolean isRefreshed(K key, Long version) {
+        SeckillBusinessCache<V> cache = distributedReader.apply(key);
+        return cache != null && cache.getVersion() != null && version != null && cache.getVersion() > version;
+    }
+
+    /**
+     * 本地缓存写入后超过refresh-after-write时由本地缓存异步调用，从分布式缓存重新加载，返回null时删除本地缓存
+     */
+    SeckillBusinessCache<V> loadLocalCache(K key) {
+        return distributedReader.apply(key);
+    }
+
+    /**
+     * 本地缓存即将过期，从分布式缓存重新加载数据
+     */
+    void refreshLocalCache(K key) {
+        distributedLoader.apply(key);
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.cache.refresh;
+
+import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheManager;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import com.zzz.seckill.infrastructure.cache.local.sync.LocalCacheSyncService;
+import com.zzz.seckill.infrastructure.lock.factoty.DistributedLockFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 创建缓存区域，注册本地缓存、提前刷新和本地缓存同步
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Component
+public class SeckillCacheRegionFactory {
+
+    @Autowired
+    private LocalCacheManager localCacheManager;
+    @Autowired
+    private SeckillCacheRefreshScheduler cacheRefreshScheduler;
+    @Autowired
+    private LocalCacheSyncService localCacheSyncService;
+    @Autowired
+    private DistributedLockFactory distributedLockFactory;
+
+    /**
+     * 创建缓存区域
+     * @param region 缓存区域
+     * @param keyParser 将广播消息中的key解析为缓存的key
+     * @param distributedReader 只读取分布式缓存中的数据
+     * @param distributedLoader 读取分布式缓存中的数据并更新本地缓存
+     * @param databaseLoader 从数据库重新加载数据到分布式缓存
+     */
+    public <K, V> SeckillCacheRegion<K, V> create(String region, Function<String, K> keyParser, Function<K, SeckillBusinessCache<V>> distributedReader,
+                                                  Function<K, SeckillBusinessCache<V>> distributedLoader, Function<K, SeckillBusinessCache<V>> databaseLoader){
+        SeckillCacheRegion<K, V> cacheRegion = new SeckillCacheRegion<>(region, keyParser, distributedReader, distributedLoader, databaseLoader, distributedLockFactory);
+        LocalCacheService<K, SeckillBusinessCache<V>> localCacheService = localCacheManager.getCache(region, cacheRegion::loadLocalCache);
+        CacheRefreshTracker<K> refreshTracker = cacheRefreshScheduler.register(region, cacheRegion::refreshDistributedCache, cacheRegion::refreshLocalCache);
+        cacheRegion.init(localCacheService, refreshTracker);
+        localCacheSyncService.register(region, cacheRegion::onCacheUpdated);
+        return cacheRegion;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.cache.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.application.cache.model.SeckillEncodedResponse;
+import com.zzz.seckill.domain.code.HttpCode;
+import com.zzz.seckill.domain.exception.SeckillException;
+import com.zzz.seckill.domain.response.ResponseMessageBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 将成功的响应消息编码成字节数组，并缓存到对应版本的缓存数据上，缓存数据更新后自动失效
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Component
+public class SeckillResponseEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(SeckillResponseEncoder.class);
+
+    //与Spring MVC使用同一个ObjectMapper，保证编码结果一致
+    @Autowired
+    private ObjectMapper objectMapper;
+    //超过这个大小的响应数据才进行gzip压缩，单位字节
+    @Value("${response.gzip.min.size:1024}")
+    private int gzipMinSize;
+
+    /**
+     * 获取缓存数据对应的响应数据，不存在时通过dataSupplier构建响应数据并编码
+     */
+    public <T> SeckillEncodedResponse encode(SeckillBusinessCache<?> cache, Supplier<T> dataSupplier){
+        SeckillEncodedResponse encodedResponse = cache.getEncodedResponse();
+        if (encodedResponse != null){
+            return encodedResponse;
+        }
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(ResponseMessageBuilder.build(HttpCode.SUCCESS.getCode(), dataSupplier.get()));
+            byte[] gzipBody = body.length >= gzipMinSize ? this.gzip(body) : null;
+            encodedResponse = new SeckillEncodedResponse(body, gzipBody);
+        } catch (JsonProcessingException e) {
+            logger.error("SeckillResponseEncoder|编码响应数据异常|{}", e.getMessage());
+            throw new SeckillException(HttpCode.SERVER_EXCEPTION);
+        }
+        //并发编码时结果相同，后写入的覆盖先写入的即可
+        cache.setEncodedResponse(encodedResponse);
+        return encodedResponse;
+    }
+
+    private byte[] gzip(byte[] body){
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)){
+            gzipOut.write(body);
+        } catch (IOException e) {
+            logger.error("SeckillResponseEncoder|压缩响应数据异常|{}", e.getMessage());
+            return null;
+        }
+        return out.toByteArray();
+    }
+}
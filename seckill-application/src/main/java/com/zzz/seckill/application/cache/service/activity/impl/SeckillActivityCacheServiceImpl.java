@@ -15,16 +15,22 @@
  */
 package com.zzz.seckill.application.cache.service.activity.impl;
 
-import com.alibaba.fastjson.JSON;
-import com.zzz.seckill.application.builder.SeckillActivityBuilder;
+import com.zzz.seckill.application.cache.codec.SeckillBusinessCacheCodec;
+import com.zzz.seckill.application.cache.metrics.CacheRegionMetrics;
+import com.zzz.seckill.application.cache.metrics.SeckillCacheMetrics;
 import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.application.cache.refresh.CacheRefreshTracker;
+import com.zzz.seckill.application.cache.refresh.SeckillCacheRegion;
+import com.zzz.seckill.application.cache.refresh.SeckillCacheRegionFactory;
 import com.zzz.seckill.application.cache.service.activity.SeckillActivityCacheService;
 import com.zzz.seckill.domain.constants.SeckillConstants;
 import com.zzz.seckill.domain.repository.SeckillActivityRepository;
 import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
 import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import com.zzz.seckill.infrastructure.cache.local.sync.LocalCacheSyncService;
 import com.zzz.seckill.infrastructure.lock.DistributedLock;
 import com.zzz.seckill.infrastructure.lock.factoty.DistributedLockFactory;
+import com.zzz.seckill.infrastructure.utils.concurrent.SingleFlight;
 import com.zzz.seckill.infrastructure.utils.string.StringUtil;
 import com.zzz.seckill.infrastructure.utils.time.SystemClock;
 import org.slf4j.Logger;
@@ -32,6 +38,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -45,8 +52,20 @@ public class SeckillActivityCacheServiceImpl implements SeckillActivityCacheServ
     private static final String SECKILL_ACTIVITY_UPDATE_CACHE_LOCK_KEY = "SECKILL_ACTIVITY_UPDATE_CACHE_LOCK_KEY_";
 
     // 本地缓存服务
-    @Autowired
     private LocalCacheService<Long, SeckillBusinessCache<SeckillActivity>> localCacheService;
+    //合并同一个key的并发缓存加载
+    private final SingleFlight<Long, SeckillBusinessCache<SeckillActivity>> singleFlight = new SingleFlight<>();
+    //缓存区域的提前刷新和本地缓存同步
+    @Autowired
+    private SeckillCacheRegionFactory seckillCacheRegionFactory;
+    private CacheRefreshTracker<Long> refreshTracker;
+    //本地缓存同步
+    @Autowired
+    private LocalCacheSyncService localCacheSyncService;
+    //缓存指标
+    @Autowired
+    private SeckillCacheMetrics seckillCacheMetrics;
+    private CacheRegionMetrics cacheMetrics;
     // 分布式锁工厂类
     @Autowired
     private DistributedLockFactory distributedLockFactory;
@@ -59,6 +78,17 @@ public class SeckillActivityCacheServiceImpl implements SeckillActivityCacheServ
     @Autowired
     private SeckillActivityRepository seckillActivityRepository;
 
+    @PostConstruct
+    public void init(){
+        SeckillCacheRegion<Long, SeckillActivity> cacheRegion = seckillCacheRegionFactory.create(SeckillConstants.LOCAL_CACHE_REGION_ACTIVITY, Long::valueOf,
+                (activityId) -> SeckillBusinessCacheCodec.decode(distributedCacheService.getBytes(buildCacheKey(activityId)), SeckillActivity.class),
+                (activityId) -> singleFlight.execute(activityId, () -> getActivityByDistributeCache(activityId)),
+                (activityId) -> tryUpdateSeckillActivityCacheByLock(activityId, false));
+        localCacheService = cacheRegion.getLocalCacheService();
+        refreshTracker = cacheRegion.getRefreshTracker();
+        cacheMetrics = seckillCacheMetrics.forRegion(SeckillConstants.LOCAL_CACHE_REGION_ACTIVITY);
+    }
+
     /**
      * 获取分布式缓存的key值
      */
@@ -72,32 +102,41 @@ public class SeckillActivityCacheServiceImpl implements SeckillActivityCacheServ
      */
     @Override
     public SeckillBusinessCache<SeckillActivity> getCachedActivity(Long id, Long version) {
+        refreshTracker.touch(id);
         SeckillBusinessCache<SeckillActivity> cacheData = localCacheService.getIfPresent(id);
         if(cacheData != null){
             if(version == null || version.compareTo(cacheData.getVersion()) <= 0){
                 logger.info("SeckillActivityInfo|命中本地缓存{}", id);
+                cacheMetrics.localHit();
                 return cacheData;
             }else{
-                return getActivityByDistributeCache(id);
+                cacheMetrics.versionRefetch();
+                return singleFlight.execute(id, () -> getActivityByDistributeCache(id));
             }
         }
-        return getActivityByDistributeCache(id);
+        return singleFlight.execute(id, () -> getActivityByDistributeCache(id));
 
     }
 
     private SeckillBusinessCache<SeckillActivity> getActivityByDistributeCache(Long id){
         logger.info("读取分布式缓存获取秒杀活动详情{}", id);
-        SeckillBusinessCache<SeckillActivity> seckillActivityCache = SeckillActivityBuilder.getSeckillBusinessCache(distributedCacheService.getObject(buildCacheKey(id)), SeckillActivity.class);
+        long startNanos = System.nanoTime();
+        SeckillBusinessCache<SeckillActivity> seckillActivityCache = SeckillBusinessCacheCodec.decode(distributedCacheService.getBytes(buildCacheKey(id)), SeckillActivity.class);
+        cacheMetrics.distributedLoad(startNanos, seckillActivityCache != null);
         if(seckillActivityCache == null){
             // 如果分布式缓存未命中，则需要查询数据库来更新分布式缓存，需要确保只能有一个请求操作数据库
             seckillActivityCache = tryUpdateSeckillActivityCacheByLock(id, true);
         }
+        if (seckillActivityCache != null && seckillActivityCache.isRetryLater()){
+            cacheMetrics.retryLater();
+        }
         // 接下来更新本地缓存，同样需要确保只能有一个请求执行此操作
         // tryUpdateSeckillActivityCacheByLock会返回有效的数据或者返回一个retryLater字段为true的数据，retryLater字段为true表示当前有请求正在更新分布式缓存，客户端稍后重试即可
         if(seckillActivityCache != null && !seckillActivityCache.isRetryLater()){
             if(localCacheUpdateLock.tryLock()){
                 try {
                     localCacheService.put(id, seckillActivityCache);
+                    refreshTracker.loaded(id, seckillActivityCache.getVersion());
                     logger.info("更新秒杀活动详情{}本地缓存", id);
                 }finally {
                     localCacheUpdateLock.unlock();
@@ -116,24 +155,29 @@ public class SeckillActivityCacheServiceImpl implements SeckillActivityCacheServ
             // 尝试获取锁，确保只有一个线程来更新分布式缓存，获取失败的话直接返回retryLater
             boolean isLock = lock.tryLock(1, 5, TimeUnit.SECONDS);
             if(!isLock){
+                cacheMetrics.lockFailure();
                 return new SeckillBusinessCache<SeckillActivity>().retryLater();
             }
             SeckillBusinessCache<SeckillActivity> cache;
             if (doubleCheck){
                 //获取锁成功后，再次从缓存中获取数据，防止高并发下多个线程争抢锁的过程中，后续的线程在等待1秒的过程中，前面的线程释放了锁，后续的线程获取锁成功后再次更新分布式缓存数据
-                cache = SeckillActivityBuilder.getSeckillBusinessCache(distributedCacheService.getObject(buildCacheKey(activityId)),  SeckillActivity.class);
+                cache = SeckillBusinessCacheCodec.decode(distributedCacheService.getBytes(buildCacheKey(activityId)), SeckillActivity.class);
                 if (cache != null){
                     return cache;
                 }
             }
             // 获取到锁之后则查询数据库
+            long loadStartNanos = System.nanoTime();
             SeckillActivity seckillActivity = seckillActivityRepository.getSeckillActivityById(activityId);
             if(seckillActivity == null){
                 cache = new SeckillBusinessCache<SeckillActivity>().notExist();
             }else {
                 cache = new SeckillBusinessCache<SeckillActivity>().with(seckillActivity).withVersion(SystemClock.millisClock().now());
             }
-            distributedCacheService.put(buildCacheKey(activityId),  JSON.toJSONString(cache), SeckillConstants.FIVE_MINUTES);
+            distributedCacheService.putBytes(buildCacheKey(activityId), SeckillBusinessCacheCodec.encode(cache, SeckillActivity.class), SeckillConstants.FIVE_MINUTES);
+            cacheMetrics.dbLoad(loadStartNanos);
+            //通知各个节点同步本地缓存
+            localCacheSyncService.publish(SeckillConstants.LOCAL_CACHE_REGION_ACTIVITY, activityId, cache.getVersion());
             logger.info("SeckillActivityCache|分布式缓存已经更新|{}", activityId);
             return cache;
         }catch (Exception e){
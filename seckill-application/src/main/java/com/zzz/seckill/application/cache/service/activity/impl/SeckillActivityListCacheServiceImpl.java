@@ -15,23 +15,31 @@
  */
 package com.zzz.seckill.application.cache.service.activity.impl;
 
-import com.alibaba.fastjson.JSON;
 
-import com.zzz.seckill.application.builder.SeckillActivityBuilder;
+import com.zzz.seckill.application.cache.codec.SeckillBusinessCacheCodec;
+import com.zzz.seckill.application.cache.metrics.CacheRegionMetrics;
+import com.zzz.seckill.application.cache.metrics.SeckillCacheMetrics;
 import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.application.cache.refresh.CacheRefreshTracker;
+import com.zzz.seckill.application.cache.refresh.SeckillCacheRegion;
+import com.zzz.seckill.application.cache.refresh.SeckillCacheRegionFactory;
 import com.zzz.seckill.application.cache.service.activity.SeckillActivityListCacheService;
 import com.zzz.seckill.domain.constants.SeckillConstants;
 import com.zzz.seckill.domain.repository.SeckillActivityRepository;
 import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
 import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import com.zzz.seckill.infrastructure.cache.local.sync.LocalCacheSyncService;
 import com.zzz.seckill.infrastructure.lock.DistributedLock;
 import com.zzz.seckill.infrastructure.lock.factoty.DistributedLockFactory;
+import com.zzz.seckill.infrastructure.utils.concurrent.SingleFlight;
 import com.zzz.seckill.infrastructure.utils.string.StringUtil;
 import com.zzz.seckill.infrastructure.utils.time.SystemClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
 import com.zzz.seckill.domain.model.entity.SeckillActivity;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -48,8 +56,20 @@ import java.util.concurrent.locks.ReentrantLock;
 @Service
 public class SeckillActivityListCacheServiceImpl implements SeckillActivityListCacheService {
     private final static Logger logger = LoggerFactory.getLogger(SeckillActivityListCacheServiceImpl.class);
+    private LocalCacheService<Integer, SeckillBusinessCache<List<SeckillActivity>>> localCacheService;
+    //合并同一个key的并发缓存加载
+    private final SingleFlight<Integer, SeckillBusinessCache<List<SeckillActivity>>> singleFlight = new SingleFlight<>();
+    //缓存区域的提前刷新和本地缓存同步
+    @Autowired
+    private SeckillCacheRegionFactory seckillCacheRegionFactory;
+    private CacheRefreshTracker<Integer> refreshTracker;
+    //本地缓存同步
+    @Autowired
+    private LocalCacheSyncService localCacheSyncService;
+    //缓存指标
     @Autowired
-    private LocalCacheService<Long, SeckillBusinessCache<List<SeckillActivity>>> localCacheService;
+    private SeckillCacheMetrics seckillCacheMetrics;
+    private CacheRegionMetrics cacheMetrics;
     //分布式锁的key
     private static final String SECKILL_ACTIVITES_UPDATE_CACHE_LOCK_KEY = "SECKILL_ACTIVITIES_UPDATE_CACHE_LOCK_KEY_";
     //本地锁
@@ -62,6 +82,17 @@ public class SeckillActivityListCacheServiceImpl implements SeckillActivityListC
     @Autowired
     private DistributedLockFactory distributedLockFactory;
 
+    @PostConstruct
+    public void init(){
+        SeckillCacheRegion<Integer, List<SeckillActivity>> cacheRegion = seckillCacheRegionFactory.create(SeckillConstants.LOCAL_CACHE_REGION_ACTIVITY_LIST, Integer::valueOf,
+                (status) -> SeckillBusinessCacheCodec.decodeList(distributedCacheService.getBytes(buildCacheKey(status)), SeckillActivity.class),
+                (status) -> singleFlight.execute(status, () -> getDistributedCache(status)),
+                (status) -> tryUpdateSeckillActivityCacheByLock(status, false));
+        localCacheService = cacheRegion.getLocalCacheService();
+        refreshTracker = cacheRegion.getRefreshTracker();
+        cacheMetrics = seckillCacheMetrics.forRegion(SeckillConstants.LOCAL_CACHE_REGION_ACTIVITY_LIST);
+    }
+
     @Override
     public String buildCacheKey(Object key) {
         return StringUtil.append(SeckillConstants.SECKILL_ACTIVITIES_CACHE_KEY, key);
@@ -72,24 +103,28 @@ public class SeckillActivityListCacheServiceImpl implements SeckillActivityListC
      */
     @Override
     public SeckillBusinessCache<List<SeckillActivity>> getCachedActivities(Integer status, Long version) {
+        refreshTracker.touch(status);
         //获取本地缓存
-        SeckillBusinessCache<List<SeckillActivity>> seckillActivitiyListCache = localCacheService.getIfPresent(status.longValue());
+        SeckillBusinessCache<List<SeckillActivity>> seckillActivitiyListCache = localCacheService.getIfPresent(status);
         if (seckillActivitiyListCache != null){
             if (version == null){
                 logger.info("SeckillActivitesCache|命中本地缓存|{}", status);
+                cacheMetrics.localHit();
                 return seckillActivitiyListCache;
             }
             //传递过来的版本小于或等于缓存中的版本号
             if (version.compareTo(seckillActivitiyListCache.getVersion()) <= 0){
                 logger.info("SeckillActivitesCache|命中本地缓存|{}", status);
+                cacheMetrics.localHit();
                 return seckillActivitiyListCache;
             }
             if (version.compareTo(seckillActivitiyListCache.getVersion()) > 0){
+                cacheMetrics.versionRefetch();
                 //从分布式缓存中获取数据
-                return getDistributedCache(status);
+                return singleFlight.execute(status, () -> getDistributedCache(status));
             }
         }
-        return getDistributedCache(status);
+        return singleFlight.execute(status, () -> getDistributedCache(status));
     }
 
     /**
@@ -97,16 +132,22 @@ public class SeckillActivityListCacheServiceImpl implements SeckillActivityListC
      */
     private SeckillBusinessCache<List<SeckillActivity>> getDistributedCache(Integer status) {
         logger.info("SeckillActivitesCache|读取分布式缓存|{}", status);
-        SeckillBusinessCache<List<SeckillActivity>> seckillActivitiyListCache = SeckillActivityBuilder.getSeckillBusinessCacheList(distributedCacheService.getObject(buildCacheKey(status)),  SeckillActivity.class);
+        long startNanos = System.nanoTime();
+        SeckillBusinessCache<List<SeckillActivity>> seckillActivitiyListCache = SeckillBusinessCacheCodec.decodeList(distributedCacheService.getBytes(buildCacheKey(status)), SeckillActivity.class);
+        cacheMetrics.distributedLoad(startNanos, seckillActivitiyListCache != null);
         if (seckillActivitiyListCache == null){
             // 分布式缓存未命中，确保只有一个请求去访问数据库来获取数据并更新分布式缓存
             seckillActivitiyListCache = tryUpdateSeckillActivityCacheByLock(status, true);
         }
+        if (seckillActivitiyListCache != null && seckillActivitiyListCache.isRetryLater()){
+            cacheMetrics.retryLater();
+        }
         // 确保只有一个请求来更新本地缓存
         if (seckillActivitiyListCache != null && !seckillActivitiyListCache.isRetryLater()){
             if (localCacheUpdatelock.tryLock()){
                 try {
-                    localCacheService.put(status.longValue(), seckillActivitiyListCache);
+                    localCacheService.put(status, seckillActivitiyListCache);
+                    refreshTracker.loaded(status, seckillActivitiyListCache.getVersion());
                     logger.info("SeckillActivitesCache|本地缓存已经更新|{}", status);
                 }finally {
                     localCacheUpdatelock.unlock();
@@ -126,23 +167,28 @@ public class SeckillActivityListCacheServiceImpl implements SeckillActivityListC
         try {
             boolean isLockSuccess = lock.tryLock(1, 5, TimeUnit.SECONDS);
             if (!isLockSuccess){
+                cacheMetrics.lockFailure();
                 return new SeckillBusinessCache<List<SeckillActivity>>().retryLater();
             }
             SeckillBusinessCache<List<SeckillActivity>> seckillActivitiyListCache;
             if (doubleCheck){
                 //获取锁成功后，再次从缓存中获取数据，防止高并发下多个线程争抢锁的过程中，后续的线程在等待1秒的过程中，前面的线程释放了锁，后续的线程获取锁成功后再次更新分布式缓存数据
-                seckillActivitiyListCache = SeckillActivityBuilder.getSeckillBusinessCacheList(distributedCacheService.getObject(buildCacheKey(status)),  SeckillActivity.class);
+                seckillActivitiyListCache = SeckillBusinessCacheCodec.decodeList(distributedCacheService.getBytes(buildCacheKey(status)), SeckillActivity.class);
                 if (seckillActivitiyListCache != null){
                     return seckillActivitiyListCache;
                 }
             }
+            long loadStartNanos = System.nanoTime();
             List<SeckillActivity> seckillActivityList = seckillActivityRepository.getSeckillActivityList(status);
             if (seckillActivityList == null){
                 seckillActivitiyListCache = new SeckillBusinessCache<List<SeckillActivity>>().notExist();
             }else {
                 seckillActivitiyListCache = new SeckillBusinessCache<List<SeckillActivity>>().with(seckillActivityList).withVersion(SystemClock.millisClock().now());
             }
-            distributedCacheService.put(buildCacheKey(status), JSON.toJSONString(seckillActivitiyListCache), SeckillConstants.FIVE_MINUTES);
+            distributedCacheService.putBytes(buildCacheKey(status), SeckillBusinessCacheCodec.encodeList(seckillActivitiyListCache, SeckillActivity.class), SeckillConstants.FIVE_MINUTES);
+            cacheMetrics.dbLoad(loadStartNanos);
+            //通知各个节点同步本地缓存
+            localCacheSyncService.publish(SeckillConstants.LOCAL_CACHE_REGION_ACTIVITY_LIST, status, seckillActivitiyListCache.getVersion());
             logger.info("SeckillActivitesCache|分布式缓存已经更新|{}", status);
             return seckillActivitiyListCache;
         } catch (InterruptedException e) {
@@ -15,17 +15,23 @@
  */
 package com.zzz.seckill.application.cache.service.goods.impl;
 
-import com.alibaba.fastjson.JSON;
-import com.zzz.seckill.application.builder.SeckillGoodsBuilder;
+import com.zzz.seckill.application.cache.codec.SeckillBusinessCacheCodec;
+import com.zzz.seckill.application.cache.metrics.CacheRegionMetrics;
+import com.zzz.seckill.application.cache.metrics.SeckillCacheMetrics;
 import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.application.cache.refresh.CacheRefreshTracker;
+import com.zzz.seckill.application.cache.refresh.SeckillCacheRegion;
+import com.zzz.seckill.application.cache.refresh.SeckillCacheRegionFactory;
 import com.zzz.seckill.application.cache.service.goods.SeckillGoodsCacheService;
 import com.zzz.seckill.domain.constants.SeckillConstants;
 import com.zzz.seckill.domain.model.entity.SeckillGoods;
 import com.zzz.seckill.domain.repository.SeckillGoodsRepository;
 import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
 import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import com.zzz.seckill.infrastructure.cache.local.sync.LocalCacheSyncService;
 import com.zzz.seckill.infrastructure.lock.DistributedLock;
 import com.zzz.seckill.infrastructure.lock.factoty.DistributedLockFactory;
+import com.zzz.seckill.infrastructure.utils.concurrent.SingleFlight;
 import com.zzz.seckill.infrastructure.utils.string.StringUtil;
 import com.zzz.seckill.infrastructure.utils.time.SystemClock;
 import org.slf4j.Logger;
@@ -33,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -47,8 +54,20 @@ import java.util.concurrent.locks.ReentrantLock;
 @Service
 public class SeckillGoodsCacheServiceImpl implements SeckillGoodsCacheService {
     private final static Logger logger = LoggerFactory.getLogger(SeckillGoodsCacheServiceImpl.class);
-    @Autowired
     private LocalCacheService<Long, SeckillBusinessCache<SeckillGoods>> localCacheService;
+    //合并同一个key的并发缓存加载
+    private final SingleFlight<Long, SeckillBusinessCache<SeckillGoods>> singleFlight = new SingleFlight<>();
+    //缓存区域的提前刷新和本地缓存同步
+    @Autowired
+    private SeckillCacheRegionFactory seckillCacheRegionFactory;
+    private CacheRefreshTracker<Long> refreshTracker;
+    //本地缓存同步
+    @Autowired
+    private LocalCacheSyncService localCacheSyncService;
+    //缓存指标
+    @Autowired
+    private SeckillCacheMetrics seckillCacheMetrics;
+    private CacheRegionMetrics cacheMetrics;
     //更新活动时获取分布式锁使用
     private static final String SECKILL_GOODS_UPDATE_CACHE_LOCK_KEY = "SECKILL_GOODS_UPDATE_CACHE_LOCK_KEY_";
     //本地可重入锁
@@ -61,6 +80,17 @@ public class SeckillGoodsCacheServiceImpl implements SeckillGoodsCacheService {
     @Autowired
     private DistributedLockFactory distributedLockFactory;
 
+    @PostConstruct
+    public void init(){
+        SeckillCacheRegion<Long, SeckillGoods> cacheRegion = seckillCacheRegionFactory.create(SeckillConstants.LOCAL_CACHE_REGION_GOODS, Long::valueOf,
+                (goodsId) -> SeckillBusinessCacheCodec.decode(distributedCacheService.getBytes(buildCacheKey(goodsId)), SeckillGoods.class),
+                (goodsId) -> singleFlight.execute(goodsId, () -> getDistributedCache(goodsId)),
+                (goodsId) -> tryUpdateSeckillGoodsCacheByLock(goodsId, false));
+        localCacheService = cacheRegion.getLocalCacheService();
+        refreshTracker = cacheRegion.getRefreshTracker();
+        cacheMetrics = seckillCacheMetrics.forRegion(SeckillConstants.LOCAL_CACHE_REGION_GOODS);
+    }
+
     @Override
     public String buildCacheKey(Object key) {
         return StringUtil.append(SeckillConstants.SECKILL_GOODS_CACHE_KEY, key);
@@ -68,25 +98,29 @@ public class SeckillGoodsCacheServiceImpl implements SeckillGoodsCacheService {
 
     @Override
     public SeckillBusinessCache<SeckillGoods> getSeckillGoods(Long goodsId, Long version) {
+        refreshTracker.touch(goodsId);
         //从本地缓存中获取数据
         SeckillBusinessCache<SeckillGoods> seckillGoodsCache = localCacheService.getIfPresent(goodsId);
         if (seckillGoodsCache != null){
             //版本号为空，则直接返回本地缓存中的数据
             if (seckillGoodsCache.getVersion() == null){
                 logger.info("SeckillGoodsCache|命中本地缓存|{}", goodsId);
+                cacheMetrics.localHit();
                 return seckillGoodsCache;
             }
             //传递的版本号小于等于缓存中的版本号，则说明缓存中的数据比客户端的数据新，直接返回本地缓存中的数据
             if (version.compareTo(seckillGoodsCache.getVersion()) <= 0){
                 logger.info("SeckillGoodsCache|命中本地缓存|{}", goodsId);
+                cacheMetrics.localHit();
                 return seckillGoodsCache;
             }
             //传递的版本号大于缓存中的版本号，说明缓存中的数据比较落后，从分布式缓存获取数据并更新到本地缓存
             if (version.compareTo(seckillGoodsCache.getVersion()) > 0){
-                return getDistributedCache(goodsId);
+                cacheMetrics.versionRefetch();
+                return singleFlight.execute(goodsId, () -> getDistributedCache(goodsId));
             }
         }
-        return getDistributedCache(goodsId);
+        return singleFlight.execute(goodsId, () -> getDistributedCache(goodsId));
     }
 
     /**
@@ -95,18 +129,24 @@ public class SeckillGoodsCacheServiceImpl implements SeckillGoodsCacheService {
     private SeckillBusinessCache<SeckillGoods> getDistributedCache(Long goodsId) {
         logger.info("SeckillGoodsCache|读取分布式缓存|{}", goodsId);
         //从分布式缓存中获取数据
-        SeckillBusinessCache<SeckillGoods> seckillGoodsCache = SeckillGoodsBuilder.getSeckillBusinessCache(distributedCacheService.getObject(buildCacheKey(goodsId)), SeckillGoods.class);
+        long startNanos = System.nanoTime();
+        SeckillBusinessCache<SeckillGoods> seckillGoodsCache = SeckillBusinessCacheCodec.decode(distributedCacheService.getBytes(buildCacheKey(goodsId)), SeckillGoods.class);
+        cacheMetrics.distributedLoad(startNanos, seckillGoodsCache != null);
         //分布式缓存中没有数据
         if (seckillGoodsCache == null){
             // 尝试更新分布式缓存中的数据，注意的是只用一个线程去更新分布式缓存中的数据
             seckillGoodsCache = tryUpdateSeckillGoodsCacheByLock(goodsId, true);
         }
+        if (seckillGoodsCache != null && seckillGoodsCache.isRetryLater()){
+            cacheMetrics.retryLater();
+        }
         //获取的数据不为空，并且不需要重试
         if (seckillGoodsCache != null && !seckillGoodsCache.isRetryLater()){
             //获取本地锁，更新本地缓存
             if (localCacheUpdatelock.tryLock()){
                 try {
                     localCacheService.put(goodsId, seckillGoodsCache);
+                    refreshTracker.loaded(goodsId, seckillGoodsCache.getVersion());
                     logger.info("SeckillGoodsCache|本地缓存已经更新|{}", goodsId);
                 }finally {
                     localCacheUpdatelock.unlock();
@@ -125,16 +165,18 @@ public class SeckillGoodsCacheServiceImpl implements SeckillGoodsCacheService {
             boolean isSuccess = lock.tryLock(2, 5, TimeUnit.SECONDS);
             //未获取到分布式锁的线程快速返回，不占用系统资源
             if (!isSuccess){
+                cacheMetrics.lockFailure();
                 return new SeckillBusinessCache<SeckillGoods>().retryLater();
             }
             SeckillBusinessCache<SeckillGoods> seckillGoodsCache;
             if (doubleCheck){
                 //获取锁成功后，再次从缓存中获取数据，防止高并发下多个线程争抢锁的过程中，后续的线程在等待1秒的过程中，前面的线程释放了锁，后续的线程获取锁成功后再次更新分布式缓存数据
-                seckillGoodsCache = SeckillGoodsBuilder.getSeckillBusinessCache(distributedCacheService.getObject(buildCacheKey(goodsId)), SeckillGoods.class);
+                seckillGoodsCache = SeckillBusinessCacheCodec.decode(distributedCacheService.getBytes(buildCacheKey(goodsId)), SeckillGoods.class);
                 if (seckillGoodsCache != null){
                     return seckillGoodsCache;
                 }
             }
+            long loadStartNanos = System.nanoTime();
             SeckillGoods seckillGoods = seckillGoodsRepository.getSeckillGoodsId(goodsId);
             if (seckillGoods == null){
                 seckillGoodsCache = new SeckillBusinessCache<SeckillGoods>().notExist();
@@ -142,7 +184,10 @@ public class SeckillGoodsCacheServiceImpl implements SeckillGoodsCacheService {
                 seckillGoodsCache = new SeckillBusinessCache<SeckillGoods>().with(seckillGoods).withVersion(SystemClock.millisClock().now());
             }
             //将数据保存到分布式缓存
-            distributedCacheService.put(buildCacheKey(goodsId), JSON.toJSONString(seckillGoodsCache), SeckillConstants.FIVE_MINUTES);
+            distributedCacheService.putBytes(buildCacheKey(goodsId), SeckillBusinessCacheCodec.encode(seckillGoodsCache, SeckillGoods.class), SeckillConstants.FIVE_MINUTES);
+            cacheMetrics.dbLoad(loadStartNanos);
+            //通知各个节点同步本地缓存
+            localCacheSyncService.publish(SeckillConstants.LOCAL_CACHE_REGION_GOODS, goodsId, seckillGoodsCache.getVersion());
             logger.info("SeckillGoodsCache|分布式缓存已经更新|{}", goodsId);
             return seckillGoodsCache;
         } catch (InterruptedException e) {
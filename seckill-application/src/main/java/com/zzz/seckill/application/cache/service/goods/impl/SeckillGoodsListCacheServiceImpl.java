@@ -15,17 +15,23 @@
  */
 package com.zzz.seckill.application.cache.service.goods.impl;
 
-import com.alibaba.fastjson.JSON;
-import com.zzz.seckill.application.builder.SeckillGoodsBuilder;
+import com.zzz.seckill.application.cache.codec.SeckillBusinessCacheCodec;
+import com.zzz.seckill.application.cache.metrics.CacheRegionMetrics;
+import com.zzz.seckill.application.cache.metrics.SeckillCacheMetrics;
 import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.application.cache.refresh.CacheRefreshTracker;
+import com.zzz.seckill.application.cache.refresh.SeckillCacheRegion;
+import com.zzz.seckill.application.cache.refresh.SeckillCacheRegionFactory;
 import com.zzz.seckill.application.cache.service.goods.SeckillGoodsListCacheService;
 import com.zzz.seckill.domain.constants.SeckillConstants;
 import com.zzz.seckill.domain.model.entity.SeckillGoods;
 import com.zzz.seckill.domain.repository.SeckillGoodsRepository;
 import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
 import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import com.zzz.seckill.infrastructure.cache.local.sync.LocalCacheSyncService;
 import com.zzz.seckill.infrastructure.lock.DistributedLock;
 import com.zzz.seckill.infrastructure.lock.factoty.DistributedLockFactory;
+import com.zzz.seckill.infrastructure.utils.concurrent.SingleFlight;
 import com.zzz.seckill.infrastructure.utils.string.StringUtil;
 import com.zzz.seckill.infrastructure.utils.time.SystemClock;
 import org.slf4j.Logger;
@@ -33,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -48,8 +55,20 @@ import java.util.concurrent.locks.ReentrantLock;
 @Service
 public class SeckillGoodsListCacheServiceImpl implements SeckillGoodsListCacheService {
     private final static Logger logger = LoggerFactory.getLogger(SeckillGoodsListCacheServiceImpl.class);
-    @Autowired
     private LocalCacheService<Long, SeckillBusinessCache<List<SeckillGoods>>> localCacheService;
+    //合并同一个key的并发缓存加载
+    private final SingleFlight<Long, SeckillBusinessCache<List<SeckillGoods>>> singleFlight = new SingleFlight<>();
+    //缓存区域的提前刷新和本地缓存同步
+    @Autowired
+    private SeckillCacheRegionFactory seckillCacheRegionFactory;
+    private CacheRefreshTracker<Long> refreshTracker;
+    //本地缓存同步
+    @Autowired
+    private LocalCacheSyncService localCacheSyncService;
+    //缓存指标
+    @Autowired
+    private SeckillCacheMetrics seckillCacheMetrics;
+    private CacheRegionMetrics cacheMetrics;
     //更新活动时获取分布式锁使用
     private static final String SECKILL_GOODS_LIST_UPDATE_CACHE_LOCK_KEY = "SECKILL_GOODS_LIST_UPDATE_CACHE_LOCK_KEY_";
     //本地可重入锁
@@ -61,6 +80,17 @@ public class SeckillGoodsListCacheServiceImpl implements SeckillGoodsListCacheSe
     @Autowired
     private DistributedLockFactory distributedLockFactory;
 
+    @PostConstruct
+    public void init(){
+        SeckillCacheRegion<Long, List<SeckillGoods>> cacheRegion = seckillCacheRegionFactory.create(SeckillConstants.LOCAL_CACHE_REGION_GOODS_LIST, Long::valueOf,
+                (activityId) -> SeckillBusinessCacheCodec.decodeList(distributedCacheService.getBytes(buildCacheKey(activityId)), SeckillGoods.class),
+                (activityId) -> singleFlight.execute(activityId, () -> getDistributedCache(activityId)),
+                (activityId) -> tryUpdateSeckillGoodsCacheByLock(activityId, false));
+        localCacheService = cacheRegion.getLocalCacheService();
+        refreshTracker = cacheRegion.getRefreshTracker();
+        cacheMetrics = seckillCacheMetrics.forRegion(SeckillConstants.LOCAL_CACHE_REGION_GOODS_LIST);
+    }
+
     @Override
     public String buildCacheKey(Object key) {
         return StringUtil.append(SeckillConstants.SECKILL_GOODSES_CACHE_KEY, key);
@@ -68,25 +98,29 @@ public class SeckillGoodsListCacheServiceImpl implements SeckillGoodsListCacheSe
 
     @Override
     public SeckillBusinessCache<List<SeckillGoods>> getCachedGoodsList(Long activityId, Long version) {
+        refreshTracker.touch(activityId);
         //获取本地缓存中的数据
         SeckillBusinessCache<List<SeckillGoods>> seckillGoodsListCache = localCacheService.getIfPresent(activityId);
         if (seckillGoodsListCache != null){
             //版本号为空，表示命中本地缓存
             if (version == null){
                 logger.info("SeckillGoodsListCache|命中本地缓存|{}", activityId);
+                cacheMetrics.localHit();
                 return seckillGoodsListCache;
             }
             //传递的版本号比缓存中的版本号小，则直接返回缓存中的数据
             if (version.compareTo(seckillGoodsListCache.getVersion()) <= 0){
                 logger.info("SeckillGoodsListCache|命中本地缓存|{}", activityId);
+                cacheMetrics.localHit();
                 return seckillGoodsListCache;
             }
             //传递的版本号大于缓存中色版本号，则更新缓存
             if (version.compareTo(seckillGoodsListCache.getVersion()) > 0){
-                return getDistributedCache(activityId);
+                cacheMetrics.versionRefetch();
+                return singleFlight.execute(activityId, () -> getDistributedCache(activityId));
             }
         }
-        return getDistributedCache(activityId);
+        return singleFlight.execute(activityId, () -> getDistributedCache(activityId));
     }
 
     /**
@@ -94,16 +128,22 @@ public class SeckillGoodsListCacheServiceImpl implements SeckillGoodsListCacheSe
      */
     private SeckillBusinessCache<List<SeckillGoods>> getDistributedCache(Long activityId) {
         logger.info("SeckillGoodsListCache|读取分布式缓存|{}", activityId);
-        SeckillBusinessCache<List<SeckillGoods>> seckillGoodsListCache = SeckillGoodsBuilder.getSeckillBusinessCacheList(distributedCacheService.getObject(buildCacheKey(activityId)), SeckillGoods.class);
+        long startNanos = System.nanoTime();
+        SeckillBusinessCache<List<SeckillGoods>> seckillGoodsListCache = SeckillBusinessCacheCodec.decodeList(distributedCacheService.getBytes(buildCacheKey(activityId)), SeckillGoods.class);
+        cacheMetrics.distributedLoad(startNanos, seckillGoodsListCache != null);
         //分布式缓存中的数据为空
         if (seckillGoodsListCache == null){
             //使用一个线程尝试去更新分布式缓存中的数据
             seckillGoodsListCache = tryUpdateSeckillGoodsCacheByLock(activityId, true);
         }
+        if (seckillGoodsListCache != null && seckillGoodsListCache.isRetryLater()){
+            cacheMetrics.retryLater();
+        }
         if (seckillGoodsListCache != null && !seckillGoodsListCache.isRetryLater()){
             if (localCacheUpdatelock.tryLock()){
                 try {
                     localCacheService.put(activityId, seckillGoodsListCache);
+                    refreshTracker.loaded(activityId, seckillGoodsListCache.getVersion());
                     logger.info("SeckillGoodsListCache|本地缓存已经更新|{}", activityId);
                 }finally {
                     localCacheUpdatelock.unlock();
@@ -123,16 +163,18 @@ public class SeckillGoodsListCacheServiceImpl implements SeckillGoodsListCacheSe
         try {
             boolean isSuccess = lock.tryLock(2, 5, TimeUnit.SECONDS);
             if (!isSuccess){
+                cacheMetrics.lockFailure();
                 return new SeckillBusinessCache<List<SeckillGoods>>().retryLater();
             }
             SeckillBusinessCache<List<SeckillGoods>> seckillGoodsListCache;
             if (doubleCheck){
                 //获取锁成功后，再次从缓存中获取数据，防止高并发下多个线程争抢锁的过程中，后续的线程在等待1秒的过程中，前面的线程释放了锁，后续的线程获取锁成功后再次更新分布式缓存数据
-                seckillGoodsListCache = SeckillGoodsBuilder.getSeckillBusinessCacheList(distributedCacheService.getObject(buildCacheKey(activityId)), SeckillGoods.class);
+                seckillGoodsListCache = SeckillBusinessCacheCodec.decodeList(distributedCacheService.getBytes(buildCacheKey(activityId)), SeckillGoods.class);
                 if (seckillGoodsListCache != null){
                     return seckillGoodsListCache;
                 }
             }
+            long loadStartNanos = System.nanoTime();
             List<SeckillGoods> seckillGoodsList = seckillGoodsRepository.getSeckillGoodsByActivityId(activityId);
             if (seckillGoodsList == null){
                 seckillGoodsListCache = new SeckillBusinessCache<List<SeckillGoods>>().notExist();
@@ -140,7 +182,10 @@ public class SeckillGoodsListCacheServiceImpl implements SeckillGoodsListCacheSe
                 seckillGoodsListCache = new SeckillBusinessCache<List<SeckillGoods>>().with(seckillGoodsList).withVersion(SystemClock.millisClock().now());
             }
             //更新到分布式缓存中
-            distributedCacheService.put(buildCacheKey(activityId), JSON.toJSONString(seckillGoodsListCache), SeckillConstants.FIVE_MINUTES);
+            distributedCacheService.putBytes(buildCacheKey(activityId), SeckillBusinessCacheCodec.encodeList(seckillGoodsListCache, SeckillGoods.class), SeckillConstants.FIVE_MINUTES);
+            cacheMetrics.dbLoad(loadStartNanos);
+            //通知各个节点同步本地缓存
+            localCacheSyncService.publish(SeckillConstants.LOCAL_CACHE_REGION_GOODS_LIST, activityId, seckillGoodsListCache.getVersion());
             logger.info("SeckillGoodsListCache|分布式缓存已经更新|{}", activityId);
             return seckillGoodsListCache;
         } catch (InterruptedException e) {
@@ -20,6 +20,8 @@ public class SeckillOrderCommand implements Serializable {
     private Long activityId;
     //商品版本号
     private Long version;
+    //下单令牌，可选，传入时相同令牌的重复提交直接返回首次下单结果
+    private String orderToken;
 
     public Long getGoodsId() {
         return goodsId;
@@ -52,4 +54,12 @@ public class SeckillOrderCommand implements Serializable {
     public void setVersion(Long version) {
         this.version = version;
     }
+
+    public String getOrderToken() {
+        return orderToken;
+    }
+
+    public void setOrderToken(String orderToken) {
+        this.orderToken = orderToken;
+    }
 }
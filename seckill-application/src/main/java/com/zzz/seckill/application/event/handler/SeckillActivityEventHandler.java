@@ -18,10 +18,10 @@ package com.zzz.seckill.application.event.handler;
 import com.alibaba.cola.dto.Response;
 import com.alibaba.cola.event.EventHandler;
 import com.alibaba.cola.event.EventHandlerI;
-import com.alibaba.fastjson.JSON;
 import com.zzz.seckill.application.cache.service.activity.SeckillActivityCacheService;
 import com.zzz.seckill.application.cache.service.activity.SeckillActivityListCacheService;
 import com.zzz.seckill.domain.event.SeckillActivityEvent;
+import com.zzz.seckill.infrastructure.utils.log.LazyJson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,7 +43,7 @@ public class SeckillActivityEventHandler implements EventHandlerI<Response, Seck
 
     @Override
     public Response execute(SeckillActivityEvent seckillActivityEvent) {
-        logger.info("activityEvent|接收活动事件|{}", JSON.toJSON(seckillActivityEvent));
+        logger.info("activityEvent|接收活动事件|{}", LazyJson.of(seckillActivityEvent));
         if (seckillActivityEvent == null){
             logger.info("activityEvent|事件参数错误" );
             return Response.buildSuccess();
@@ -3,10 +3,10 @@ package com.zzz.seckill.application.event.handler;
 
 import com.alibaba.cola.event.EventHandler;
 import com.alibaba.cola.event.EventHandlerI;
-import com.alibaba.fastjson.JSON;
 import com.zzz.seckill.application.cache.service.goods.SeckillGoodsCacheService;
 import com.zzz.seckill.application.cache.service.goods.SeckillGoodsListCacheService;
 import com.zzz.seckill.domain.event.SeckillGoodsEvent;
+import com.zzz.seckill.infrastructure.utils.log.LazyJson;
 import com.alibaba.cola.dto.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +23,7 @@ public class SeckillGoodsEventHandler implements EventHandlerI<Response, Seckill
 
     @Override
     public Response execute(SeckillGoodsEvent seckillGoodsEvent) {
-        logger.info("goodsEvent|接收秒杀商品事件{}", JSON.toJSON(seckillGoodsEvent));
+        logger.info("goodsEvent|接收秒杀商品事件{}", LazyJson.of(seckillGoodsEvent));
         if (seckillGoodsEvent.getId() == null){
             logger.info("goodsEvent|接收秒杀品事件参数错误");
             return Response.buildSuccess();
@@ -18,8 +18,8 @@ package com.zzz.seckill.application.event.handler;
 import com.alibaba.cola.dto.Response;
 import com.alibaba.cola.event.EventHandler;
 import com.alibaba.cola.event.EventHandlerI;
-import com.alibaba.fastjson.JSON;
 import com.zzz.seckill.domain.event.SeckillOrderEvent;
+import com.zzz.seckill.infrastructure.utils.log.LazyJson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,7 +37,7 @@ public class SeckillOrderEventHandler implements EventHandlerI<Response, Seckill
 
     @Override
     public Response execute(SeckillOrderEvent seckillOrderEvent) {
-        logger.info("orderEvent|接收订单事件|{}", JSON.toJSON(seckillOrderEvent));
+        logger.info("orderEvent|接收订单事件|{}", LazyJson.of(seckillOrderEvent));
         if (seckillOrderEvent.getId() == null){
             logger.info("orderEvent|订单参数错误");
             return Response.buildSuccess();
@@ -17,13 +17,14 @@ package com.zzz.seckill.application.order.place;
 
 import com.zzz.seckill.application.command.SeckillOrderCommand;
 import com.zzz.seckill.domain.code.HttpCode;
+import com.zzz.seckill.domain.constants.SeckillConstants;
 import com.zzz.seckill.domain.exception.SeckillException;
 import com.zzz.seckill.domain.model.dto.SeckillGoodsDTO;
 import com.zzz.seckill.domain.model.entity.SeckillOrder;
 import com.zzz.seckill.domain.model.enums.SeckillGoodsStatus;
 import com.zzz.seckill.domain.model.enums.SeckillOrderStatus;
 import com.zzz.seckill.infrastructure.utils.beans.BeanUtil;
-import com.zzz.seckill.infrastructure.utils.id.SnowFlakeFactory;
+import com.zzz.seckill.infrastructure.utils.id.IdGeneratorFactory;
 
 import java.math.BigDecimal;
 import java.util.Date;
@@ -41,13 +42,20 @@ public interface SeckillPlaceOrderService {
      */
     Long placeOrder(Long userId, SeckillOrderCommand seckillOrderCommand);
 
+    /**
+     * 获取下单结果，同步下单时下单凭证就是订单id
+     */
+    default Long getPlaceOrderResult(Long userId, Long ticket){
+        return ticket;
+    }
+
     /**
      * 构建订单
      */
     default SeckillOrder buildSeckillOrder(Long userId, SeckillOrderCommand seckillOrderCommand, SeckillGoodsDTO seckillGoods){
         SeckillOrder seckillOrder = new SeckillOrder();
         BeanUtil.copyProperties(seckillOrderCommand, seckillOrder);
-        seckillOrder.setId(SnowFlakeFactory.getSnowFlakeFromCache().nextId());
+        seckillOrder.setId(IdGeneratorFactory.getIdGenerator().nextId());
         seckillOrder.setGoodsName(seckillGoods.getGoodsName());
         seckillOrder.setUserId(userId);
         seckillOrder.setActivityPrice(seckillGoods.getActivityPrice());
@@ -58,6 +66,15 @@ public interface SeckillPlaceOrderService {
         return seckillOrder;
     }
 
+    /**
+     * 商品限购数量Key的过期时间戳，活动结束后再保留一段时间
+     */
+    default long getLimitExpireAt(SeckillGoodsDTO seckillGoods){
+        long now = System.currentTimeMillis();
+        long endTime = seckillGoods.getEndTime() == null ? now : Math.max(seckillGoods.getEndTime().getTime(), now);
+        return endTime + SeckillConstants.GOODS_ITEM_LIMIT_EXPIRE_DELAY;
+    }
+
     /**
      * 检测商品信息
      */
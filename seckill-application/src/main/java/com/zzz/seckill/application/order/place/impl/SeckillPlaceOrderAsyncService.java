@@ -0,0 +1,174 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.order.place.impl;
+
+import com.alibaba.fastjson.JSON;
+import com.zzz.seckill.application.command.SeckillOrderCommand;
+import com.zzz.seckill.application.order.place.SeckillPlaceOrderService;
+import com.zzz.seckill.application.order.place.metrics.SeckillPlaceOrderMetrics;
+import com.zzz.seckill.application.service.SeckillGoodsService;
+import com.zzz.seckill.domain.code.HttpCode;
+import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.domain.exception.SeckillException;
+import com.zzz.seckill.domain.model.dto.SeckillGoodsDTO;
+import com.zzz.seckill.domain.model.entity.SeckillOrder;
+import com.zzz.seckill.domain.service.SeckillOrderDomainService;
+import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
+import com.zzz.seckill.infrastructure.cache.soldout.SoldOutCacheService;
+import com.zzz.seckill.infrastructure.mq.MessageListener;
+import com.zzz.seckill.infrastructure.mq.MessageSenderService;
+import com.zzz.seckill.infrastructure.utils.string.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 异步下单，请求线程只扣减Redis库存并投递下单消息，订单和数据库库存由消息消费者持久化
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "place.order.type", havingValue = "async")
+public class SeckillPlaceOrderAsyncService implements SeckillPlaceOrderService, MessageListener {
+    private final Logger logger = LoggerFactory.getLogger(SeckillPlaceOrderAsyncService.class);
+    @Autowired
+    private SeckillOrderDomainService seckillOrderDomainService;
+    @Autowired
+    private SeckillGoodsService seckillGoodsService;
+    @Autowired
+    private SeckillPlaceOrderMetrics seckillPlaceOrderMetrics;
+    @Autowired
+    private DistributedCacheService distributedCacheService;
+    @Autowired
+    private SoldOutCacheService soldOutCacheService;
+    @Autowired
+    private MessageSenderService messageSenderService;
+
+    @Override
+    public Long placeOrder(Long userId, SeckillOrderCommand seckillOrderCommand) {
+        String key = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, String.valueOf(seckillOrderCommand.getGoodsId()));
+        //用户已购数量，和库存在同一个Lua脚本中检查并扣减
+        String limitKey = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_LIMIT_KEY_PREFIX, String.valueOf(seckillOrderCommand.getGoodsId()));
+        //商品已售罄，直接返回
+        if (soldOutCacheService.isSoldOut(key)){
+            throw new SeckillException(HttpCode.STOCK_LT_ZERO);
+        }
+        SeckillGoodsDTO seckillGoods = seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_GOODS, () -> seckillGoodsService.getSeckillGoods(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getVersion()));
+        //检测商品
+        seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_CHECK, () -> this.checkSeckillGoods(seckillOrderCommand, seckillGoods));
+        seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_STOCK_DECREMENT, () -> {
+            Long result = distributedCacheService.decrementByLua(key, limitKey, userId, seckillOrderCommand.getQuantity(), seckillGoods.getLimitNum(), this.getLimitExpireAt(seckillGoods));
+            distributedCacheService.checkResult(key, result);
+        });
+        //订单id即为下单凭证
+        SeckillOrder seckillOrder = this.buildSeckillOrder(userId, seckillOrderCommand, seckillGoods);
+        boolean sendSuccess;
+        try {
+            sendSuccess = seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_MESSAGE_SEND, () -> messageSenderService.send(SeckillConstants.TOPIC_ORDER_MSG, JSON.toJSONString(seckillOrder)));
+        } catch (Exception e) {
+            logger.error("SeckillPlaceOrderAsyncService|投递下单消息异常|{}", e.getMessage());
+            sendSuccess = false;
+        }
+        //消息未投递成功，将Redis中的库存增加回去
+        if (!sendSuccess){
+            seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_COMPENSATION, () -> distributedCacheService.incrementByLua(key, limitKey, userId, seckillOrderCommand.getQuantity()));
+            throw new SeckillException(HttpCode.RETRY_LATER);
+        }
+        return seckillOrder.getId();
+    }
+
+    @Override
+    public Long getPlaceOrderResult(Long userId, Long ticket) {
+        if (ticket == null){
+            throw new SeckillException(HttpCode.PARAMS_INVALID);
+        }
+        String result = distributedCacheService.getString(buildTicketKey(userId, ticket));
+        if (result == null){
+            //下单结果已过期时以数据库中的订单为准，否则消息还未被消费
+            SeckillOrder seckillOrder = seckillOrderDomainService.getSeckillOrderById(ticket);
+            if (seckillOrder != null && userId.equals(seckillOrder.getUserId())){
+                return ticket;
+            }
+            throw new SeckillException(HttpCode.ORDER_PROCESSING);
+        }
+        if (!HttpCode.SUCCESS.getCode().equals(Integer.valueOf(result))){
+            throw new SeckillException(HttpCode.ORDER_FAILED);
+        }
+        return ticket;
+    }
+
+    @Override
+    public String getTopic() {
+        return SeckillConstants.TOPIC_ORDER_MSG;
+    }
+
+    /**
+     * 消费下单消息，保存订单并同步数据库库存，失败时将Redis库存增加回去
+     */
+    @Override
+    public void onMessage(String message) {
+        SeckillOrder seckillOrder = JSON.parseObject(message, SeckillOrder.class);
+        String ticketKey = buildTicketKey(seckillOrder.getUserId(), seckillOrder.getId());
+        try {
+            seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_ORDER_INSERT, () -> seckillOrderDomainService.saveSeckillOrder(seckillOrder));
+        } catch (Exception e) {
+            //消息重复投递时订单已经保存过，按照成功处理，不能再次补偿库存
+            if (this.isOrderSaved(seckillOrder.getId())){
+                logger.info("SeckillPlaceOrderAsyncService|订单已保存，忽略重复消息|{}", seckillOrder.getId());
+                distributedCacheService.put(ticketKey, String.valueOf(HttpCode.SUCCESS.getCode()), SeckillConstants.FIVE_MINUTES);
+                return;
+            }
+            logger.error("SeckillPlaceOrderAsyncService|保存订单失败|{}|{}", seckillOrder.getId(), e.getMessage());
+            String key = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, String.valueOf(seckillOrder.getGoodsId()));
+            String limitKey = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_LIMIT_KEY_PREFIX, String.valueOf(seckillOrder.getGoodsId()));
+            seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_COMPENSATION, () -> distributedCacheService.incrementByLua(key, limitKey, seckillOrder.getUserId(), seckillOrder.getQuantity()));
+            distributedCacheService.put(ticketKey, String.valueOf(HttpCode.ORDER_FAILED.getCode()), SeckillConstants.FIVE_MINUTES);
+            return;
+        }
+        //Redis中的库存已经扣减成功，订单生效，数据库库存只做同步，同步失败不影响下单结果
+        try {
+            boolean updated = seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_DB_STOCK_UPDATE, () -> seckillGoodsService.updateDbAvailableStock(seckillOrder.getQuantity(), seckillOrder.getGoodsId()));
+            if (!updated){
+                logger.error("SeckillPlaceOrderAsyncService|数据库库存不足，与Redis库存不一致|{},{},{}", seckillOrder.getId(), seckillOrder.getGoodsId(), seckillOrder.getQuantity());
+                seckillPlaceOrderMetrics.recordStockMismatch(SeckillPlaceOrderMetrics.MISMATCH_DB_STOCK_LT_ZERO);
+            }
+        } catch (Exception e) {
+            logger.error("SeckillPlaceOrderAsyncService|同步数据库库存失败|{}|{}", seckillOrder.getId(), e.getMessage());
+            seckillPlaceOrderMetrics.recordStockMismatch(SeckillPlaceOrderMetrics.MISMATCH_DB_SYNC_FAILED);
+        }
+        distributedCacheService.put(ticketKey, String.valueOf(HttpCode.SUCCESS.getCode()), SeckillConstants.FIVE_MINUTES);
+    }
+
+    /**
+     * 订单是否已经保存，查询失败时无法确认，按照未保存处理
+     */
+    private boolean isOrderSaved(Long orderId){
+        try {
+            return seckillOrderDomainService.getSeckillOrderById(orderId) != null;
+        } catch (Exception e) {
+            logger.error("SeckillPlaceOrderAsyncService|查询订单失败|{}|{}", orderId, e.getMessage());
+            return false;
+        }
+    }
+
+    private String buildTicketKey(Long userId, Long ticket){
+        return SeckillConstants.getKey(SeckillConstants.ORDER_TICKET_KEY_PREFIX, StringUtil.append(userId, ticket));
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.order.place.impl;
+
+import com.zzz.seckill.application.command.SeckillOrderCommand;
+import com.zzz.seckill.application.order.place.SeckillPlaceOrderService;
+import com.zzz.seckill.application.order.place.metrics.SeckillPlaceOrderMetrics;
+import com.zzz.seckill.application.order.place.persist.SeckillOrderPersistService;
+import com.zzz.seckill.application.service.SeckillGoodsService;
+import com.zzz.seckill.application.stock.SeckillStockBucketService;
+import com.zzz.seckill.domain.code.HttpCode;
+import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.domain.exception.SeckillException;
+import com.zzz.seckill.domain.model.dto.SeckillGoodsDTO;
+import com.zzz.seckill.domain.model.entity.SeckillOrder;
+import com.zzz.seckill.domain.model.enums.SeckillGoodsStatus;
+import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
+import com.zzz.seckill.infrastructure.cache.soldout.SoldOutCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于本地库存分桶的同步下单
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "place.order.type", havingValue = "bucket")
+public class SeckillPlaceOrderBucketService implements SeckillPlaceOrderService {
+    @Autowired
+    private SeckillOrderPersistService seckillOrderPersistService;
+    @Autowired
+    private SeckillGoodsService seckillGoodsService;
+    @Autowired
+    private SeckillPlaceOrderMetrics seckillPlaceOrderMetrics;
+    @Autowired
+    private SeckillStockBucketService seckillStockBucketService;
+    @Autowired
+    private SoldOutCacheService soldOutCacheService;
+    @Autowired
+    private DistributedCacheService distributedCacheService;
+
+    @Override
+    public Long placeOrder(Long userId, SeckillOrderCommand seckillOrderCommand) {
+        //商品已售罄，直接返回
+        String key = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, String.valueOf(seckillOrderCommand.getGoodsId()));
+        if (soldOutCacheService.isSoldOut(key)){
+            throw new SeckillException(HttpCode.STOCK_LT_ZERO);
+        }
+        SeckillGoodsDTO seckillGoods = seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_GOODS, () -> seckillGoodsService.getSeckillGoods(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getVersion()));
+        //商品已下架，归还本地剩余的库存
+        if (seckillGoods != null && SeckillGoodsStatus.isOffline(seckillGoods.getStatus())){
+            seckillStockBucketService.releaseStock(seckillOrderCommand.getGoodsId());
+        }
+        //检测商品
+        seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_CHECK, () -> this.checkSeckillGoods(seckillOrderCommand, seckillGoods));
+        SeckillOrder seckillOrder = this.buildSeckillOrder(userId, seckillOrderCommand, seckillGoods);
+        //本地库存不经过扣减库存的Lua脚本，单独检查并累加用户已购数量
+        String limitKey = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_LIMIT_KEY_PREFIX, String.valueOf(seckillOrderCommand.getGoodsId()));
+        Long limitResult = distributedCacheService.acquireLimitByLua(limitKey, userId, seckillOrderCommand.getQuantity(), seckillGoods.getLimitNum(), this.getLimitExpireAt(seckillGoods));
+        if (limitResult != null){
+            distributedCacheService.checkResult(limitResult);
+        }
+        boolean decrementStock;
+        try{
+            decrementStock = seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_STOCK_DECREMENT, () -> seckillStockBucketService.decrementStock(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getQuantity()));
+        }catch (RuntimeException e){
+            distributedCacheService.releaseLimitByLua(limitKey, userId, seckillOrderCommand.getQuantity());
+            throw e;
+        }
+        if (!decrementStock){
+            distributedCacheService.releaseLimitByLua(limitKey, userId, seckillOrderCommand.getQuantity());
+            throw new SeckillException(HttpCode.STOCK_LT_ZERO);
+        }
+        try{
+            seckillOrderPersistService.saveSeckillOrder(seckillOrder);
+        }catch (Exception e){
+            //将本地库存和用户已购数量增加回去
+            seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_COMPENSATION, () -> {
+                seckillStockBucketService.incrementStock(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getQuantity());
+                distributedCacheService.releaseLimitByLua(limitKey, userId, seckillOrderCommand.getQuantity());
+            });
+            throw e;
+        }
+        return seckillOrder.getId();
+    }
+}
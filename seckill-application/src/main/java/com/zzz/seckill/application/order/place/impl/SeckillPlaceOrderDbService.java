@@ -17,6 +17,7 @@ package com.zzz.seckill.application.order.place.impl;
 
 import com.zzz.seckill.application.command.SeckillOrderCommand;
 import com.zzz.seckill.application.order.place.SeckillPlaceOrderService;
+import com.zzz.seckill.application.order.place.metrics.SeckillPlaceOrderMetrics;
 import com.zzz.seckill.application.service.SeckillGoodsService;
 import com.zzz.seckill.domain.code.HttpCode;
 import com.zzz.seckill.domain.exception.SeckillException;
@@ -26,6 +27,7 @@ import com.zzz.seckill.domain.service.SeckillOrderDomainService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author binghe(微信 : hacker_binghe)
@@ -40,22 +42,25 @@ public class SeckillPlaceOrderDbService implements SeckillPlaceOrderService {
     @Autowired
     private SeckillGoodsService seckillGoodsService;
     @Autowired
+    private SeckillPlaceOrderMetrics seckillPlaceOrderMetrics;
+    @Autowired
     private SeckillOrderDomainService seckillOrderDomainService;
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Long placeOrder(Long userId, SeckillOrderCommand seckillOrderCommand) {
         //获取商品
-        SeckillGoodsDTO seckillGoods = seckillGoodsService.getSeckillGoods(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getVersion());
+        SeckillGoodsDTO seckillGoods = seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_GOODS, () -> seckillGoodsService.getSeckillGoods(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getVersion()));
         //检测商品信息
-        this.checkSeckillGoods(seckillOrderCommand, seckillGoods);
+        seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_CHECK, () -> this.checkSeckillGoods(seckillOrderCommand, seckillGoods));
         //扣减库存不成功，则库存不足
-        if (!seckillGoodsService.updateDbAvailableStock(seckillOrderCommand.getQuantity(), seckillOrderCommand.getGoodsId())){
+        if (!seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_DB_STOCK_UPDATE, () -> seckillGoodsService.updateDbAvailableStock(seckillOrderCommand.getQuantity(), seckillOrderCommand.getGoodsId()))){
             throw new SeckillException(HttpCode.STOCK_LT_ZERO);
         }
         //构建订单
         SeckillOrder seckillOrder = this.buildSeckillOrder(userId, seckillOrderCommand, seckillGoods);
         //保存订单
-        seckillOrderDomainService.saveSeckillOrder(seckillOrder);
+        seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_ORDER_INSERT, () -> seckillOrderDomainService.saveSeckillOrder(seckillOrder));
         return seckillOrder.getId();
     }
 }
@@ -15,9 +15,9 @@
  */
 package com.zzz.seckill.application.order.place.impl;
 
-import com.alibaba.fastjson.JSONObject;
 import com.zzz.seckill.application.command.SeckillOrderCommand;
 import com.zzz.seckill.application.order.place.SeckillPlaceOrderService;
+import com.zzz.seckill.application.order.place.metrics.SeckillPlaceOrderMetrics;
 import com.zzz.seckill.application.service.SeckillGoodsService;
 import com.zzz.seckill.domain.code.HttpCode;
 import com.zzz.seckill.domain.constants.SeckillConstants;
@@ -51,6 +51,8 @@ public class SeckillPlaceOrderLockService implements SeckillPlaceOrderService {
     @Autowired
     private SeckillGoodsService seckillGoodsService;
     @Autowired
+    private SeckillPlaceOrderMetrics seckillPlaceOrderMetrics;
+    @Autowired
     private SeckillOrderDomainService seckillOrderDomainService;
     @Autowired
     private DistributedLockFactory distributedLockFactory;
@@ -61,47 +63,70 @@ public class SeckillPlaceOrderLockService implements SeckillPlaceOrderService {
     @Transactional(rollbackFor = Exception.class)
     public Long placeOrder(Long userId, SeckillOrderCommand seckillOrderCommand) {
         //获取商品
-        SeckillGoodsDTO seckillGoods = seckillGoodsService.getSeckillGoods(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getVersion());
+        SeckillGoodsDTO seckillGoods = seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_GOODS, () -> seckillGoodsService.getSeckillGoods(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getVersion()));
         //检测商品信息
-        this.checkSeckillGoods(seckillOrderCommand, seckillGoods);
+        seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_CHECK, () -> this.checkSeckillGoods(seckillOrderCommand, seckillGoods));
         String lockKey = SeckillConstants.getKey(SeckillConstants.ORDER_LOCK_KEY_PREFIX, String.valueOf(seckillOrderCommand.getGoodsId()));
         DistributedLock lock = distributedLockFactory.getDistributedLock(lockKey);
         // 获取内存中的库存信息
         String key = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, String.valueOf(seckillOrderCommand.getGoodsId()));
+        //用户已购数量的key
+        String limitKey = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_LIMIT_KEY_PREFIX, String.valueOf(seckillOrderCommand.getGoodsId()));
+        //是否累加了用户已购数量
+        boolean isAcquireLimit = false;
         //是否扣减了缓存中的库存
         boolean isDecrementCacheStock = false;
         try {
             //未获取到分布式锁
-            if (!lock.tryLock(2, 5, TimeUnit.SECONDS)){
+            long lockStartNanos = System.nanoTime();
+            boolean locked = lock.tryLock(2, 5, TimeUnit.SECONDS);
+            seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_LOCK_WAIT, lockStartNanos, locked);
+            if (!locked){
                 throw new SeckillException(HttpCode.RETRY_LATER);
             }
-            // 查询库存信息
-            Integer stock = distributedCacheService.getObject(key, Integer.class);
-            //库存不足
-            if (stock < seckillOrderCommand.getQuantity()){
-                throw new SeckillException(HttpCode.STOCK_LT_ZERO);
+            //缓存中的库存不经过扣减库存的Lua脚本，单独检查并累加用户已购数量
+            Long limitResult = distributedCacheService.acquireLimitByLua(limitKey, userId, seckillOrderCommand.getQuantity(), seckillGoods.getLimitNum(), this.getLimitExpireAt(seckillGoods));
+            if (limitResult != null){
+                distributedCacheService.checkResult(limitResult);
+                isAcquireLimit = true;
             }
-            //扣减库存
-            distributedCacheService.decrement(key, seckillOrderCommand.getQuantity());
+            seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_STOCK_DECREMENT, () -> {
+                // 查询库存信息
+                Integer stock = distributedCacheService.getObject(key, Integer.class);
+                //库存不足
+                if (stock < seckillOrderCommand.getQuantity()){
+                    throw new SeckillException(HttpCode.STOCK_LT_ZERO);
+                }
+                //扣减库存
+                distributedCacheService.decrement(key, seckillOrderCommand.getQuantity());
+            });
             //正常执行了扣减缓存中库存的操作
             isDecrementCacheStock = true;
             //构建订单
             SeckillOrder seckillOrder = this.buildSeckillOrder(userId, seckillOrderCommand, seckillGoods);
             //保存订单
-            seckillOrderDomainService.saveSeckillOrder(seckillOrder);
+            seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_ORDER_INSERT, () -> seckillOrderDomainService.saveSeckillOrder(seckillOrder));
             //扣减数据库库存
-            seckillGoodsService.updateDbAvailableStock(seckillOrderCommand.getQuantity(), seckillOrderCommand.getGoodsId());
+            seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_DB_STOCK_UPDATE, () -> seckillGoodsService.updateDbAvailableStock(seckillOrderCommand.getQuantity(), seckillOrderCommand.getGoodsId()));
             //返回订单id
             return seckillOrder.getId();
         } catch (Exception e) {
             //已经扣减了缓存中的库存，则需要增加回来
             if (isDecrementCacheStock){
-                distributedCacheService.increment(key, seckillOrderCommand.getQuantity());
+                seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_COMPENSATION, () -> distributedCacheService.increment(key, seckillOrderCommand.getQuantity()));
+            }
+            //已经累加了用户已购数量，则需要归还
+            if (isAcquireLimit){
+                distributedCacheService.releaseLimitByLua(limitKey, userId, seckillOrderCommand.getQuantity());
             }
             if (e instanceof InterruptedException){
-                logger.error("SeckillPlaceOrderLockService|下单分布式锁被中断|参数:{}|异常信息:{}", JSONObject.toJSONString(seckillOrderCommand), e.getMessage());
+                logger.error("SeckillPlaceOrderLockService|下单分布式锁被中断|{}|{}|{}", seckillOrderCommand.getGoodsId(), seckillOrderCommand.getQuantity(), e.getMessage());
             }else{
-                logger.error("SeckillPlaceOrderLockService|分布式锁下单失败|参数:{}|异常信息:{}", JSONObject.toJSONString(seckillOrderCommand), e.getMessage());
+                logger.error("SeckillPlaceOrderLockService|分布式锁下单失败|{}|{}|{}", seckillOrderCommand.getGoodsId(), seckillOrderCommand.getQuantity(), e.getMessage());
+            }
+            //保留业务异常的状态码，便于按HttpCode统计失败原因
+            if (e instanceof SeckillException){
+                throw (SeckillException) e;
             }
             throw new SeckillException(e.getMessage());
         }finally {
@@ -17,12 +17,16 @@ package com.zzz.seckill.application.order.place.impl;
 
 import com.zzz.seckill.application.command.SeckillOrderCommand;
 import com.zzz.seckill.application.order.place.SeckillPlaceOrderService;
+import com.zzz.seckill.application.order.place.metrics.SeckillPlaceOrderMetrics;
+import com.zzz.seckill.application.order.place.persist.SeckillOrderPersistService;
 import com.zzz.seckill.application.service.SeckillGoodsService;
+import com.zzz.seckill.domain.code.HttpCode;
 import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.domain.exception.SeckillException;
 import com.zzz.seckill.domain.model.dto.SeckillGoodsDTO;
 import com.zzz.seckill.domain.model.entity.SeckillOrder;
-import com.zzz.seckill.domain.service.SeckillOrderDomainService;
 import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
+import com.zzz.seckill.infrastructure.cache.soldout.SoldOutCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
@@ -38,33 +42,44 @@ import org.springframework.stereotype.Service;
 @ConditionalOnProperty(name = "place.order.type", havingValue = "lua")
 public class SeckillPlaceOrderLuaService implements SeckillPlaceOrderService {
     @Autowired
-    private SeckillOrderDomainService seckillOrderDomainService;
+    private SeckillOrderPersistService seckillOrderPersistService;
     @Autowired
     private SeckillGoodsService seckillGoodsService;
     @Autowired
+    private SeckillPlaceOrderMetrics seckillPlaceOrderMetrics;
+    @Autowired
     private DistributedCacheService distributedCacheService;
+    @Autowired
+    private SoldOutCacheService soldOutCacheService;
 
     @Override
     public Long placeOrder(Long userId, SeckillOrderCommand seckillOrderCommand) {
         boolean decrementStock = false;
-        SeckillGoodsDTO seckillGoods = seckillGoodsService.getSeckillGoods(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getVersion());
-        //检测商品
-        this.checkSeckillGoods(seckillOrderCommand, seckillGoods);
         String key = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, String.valueOf(seckillOrderCommand.getGoodsId()));
-        Long result = distributedCacheService.decrementByLua(key, seckillOrderCommand.getQuantity());
-        distributedCacheService.checkResult(result);
+        //用户已购数量，和库存在同一个Lua脚本中检查并扣减
+        String limitKey = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_LIMIT_KEY_PREFIX, String.valueOf(seckillOrderCommand.getGoodsId()));
+        //商品已售罄，直接返回
+        if (soldOutCacheService.isSoldOut(key)){
+            throw new SeckillException(HttpCode.STOCK_LT_ZERO);
+        }
+        SeckillGoodsDTO seckillGoods = seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_GOODS, () -> seckillGoodsService.getSeckillGoods(seckillOrderCommand.getGoodsId(), seckillOrderCommand.getVersion()));
+        //检测商品
+        seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_CHECK, () -> this.checkSeckillGoods(seckillOrderCommand, seckillGoods));
+        SeckillOrder seckillOrder = this.buildSeckillOrder(userId, seckillOrderCommand, seckillGoods);
+        seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_STOCK_DECREMENT, () -> {
+            Long result = distributedCacheService.decrementByLua(key, limitKey, userId, seckillOrderCommand.getQuantity(), seckillGoods.getLimitNum(), this.getLimitExpireAt(seckillGoods));
+            distributedCacheService.checkResult(key, result);
+        });
         decrementStock = true;
         try{
-            SeckillOrder seckillOrder = this.buildSeckillOrder(userId, seckillOrderCommand, seckillGoods);
-            seckillOrderDomainService.saveSeckillOrder(seckillOrder);
-            seckillGoodsService.updateDbAvailableStock(seckillOrderCommand.getQuantity(), seckillOrderCommand.getGoodsId());
-            return seckillOrder.getId();
+            seckillOrderPersistService.saveSeckillOrder(seckillOrder);
         }catch (Exception e){
             //将内存中的库存增加回去
             if (decrementStock){
-                distributedCacheService.incrementByLua(key, seckillOrderCommand.getQuantity());
+                seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_COMPENSATION, () -> distributedCacheService.incrementByLua(key, limitKey, userId, seckillOrderCommand.getQuantity()));
             }
             throw e;
         }
+        return seckillOrder.getId();
     }
 }
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.order.place.metrics;
+
+import com.zzz.seckill.domain.code.HttpCode;
+import com.zzz.seckill.domain.exception.SeckillException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 下单链路指标，按下单策略记录整体耗时、各阶段耗时以及按HttpCode统计的失败次数
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Component
+public class SeckillPlaceOrderMetrics {
+    /**
+     * 获取商品
+     */
+    public static final String STAGE_GOODS = "goods";
+    /**
+     * 检测商品
+     */
+    public static final String STAGE_CHECK = "check";
+    /**
+     * 等待分布式锁
+     */
+    public static final String STAGE_LOCK_WAIT = "lock_wait";
+    /**
+     * 扣减Redis或本地分桶库存
+     */
+    public static final String STAGE_STOCK_DECREMENT = "stock_decrement";
+    /**
+     * 保存订单
+     */
+    public static final String STAGE_ORDER_INSERT = "order_insert";
+    /**
+     * 扣减数据库库存
+     */
+    public static final String STAGE_DB_STOCK_UPDATE = "db_stock_update";
+    /**
+     * 投递下单消息
+     */
+    public static final String STAGE_MESSAGE_SEND = "message_send";
+    /**
+     * 下单失败后恢复库存
+     */
+    public static final String STAGE_COMPENSATION = "compensation";
+
+    /**
+     * 订单已保存，数据库库存不足
+     */
+    public static final String MISMATCH_DB_STOCK_LT_ZERO = "db_stock_lt_zero";
+    /**
+     * 订单已保存，同步数据库库存异常
+     */
+    public static final String MISMATCH_DB_SYNC_FAILED = "db_sync_failed";
+
+    private static final String METRIC_PLACE_ORDER = "seckill.order.place";
+    private static final String METRIC_PLACE_ORDER_STAGE = "seckill.order.place.stage";
+    private static final String METRIC_PLACE_ORDER_FAILURE = "seckill.order.place.failure";
+    private static final String METRIC_STOCK_MISMATCH = "seckill.order.place.stock.mismatch";
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_FAILURE = "failure";
+    private static final String UNKNOWN = "UNKNOWN";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${place.order.type}")
+    private String placeOrderType;
+
+    /**
+     * Micrometer每次按名称和标签查找Meter都要创建Id，热点路径上缓存已注册的Meter
+     */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 记录某个阶段的耗时，异常时按失败记录后原样抛出
+     */
+    public <T> T record(String stage, Supplier<T> supplier){
+        long startNanos = System.nanoTime();
+        boolean success = false;
+        try{
+            T result = supplier.get();
+            success = true;
+            return result;
+        }finally {
+            this.record(stage, startNanos, success);
+        }
+    }
+
+    public void record(String stage, Runnable runnable){
+        this.record(stage, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 记录从startNanos开始的阶段耗时，用于抛出受检异常的阶段
+     */
+    public void record(String stage, long startNanos, boolean success){
+        String outcome = success ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+        timers.computeIfAbsent(stage + ":" + outcome, (key) -> Timer.builder(METRIC_PLACE_ORDER_STAGE)
+                .description("seckill place order stage latency")
+                .tag("type", placeOrderType)
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录整体下单耗时，失败时按HttpCode计数
+     */
+    public void recordPlaceOrder(long startNanos, Throwable throwable){
+        String outcome = throwable == null ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+        timers.computeIfAbsent(outcome, (key) -> Timer.builder(METRIC_PLACE_ORDER)
+                .description("seckill place order latency")
+                .tag("type", placeOrderType)
+                .tag("outcome", outcome)
+                .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (throwable != null){
+            this.getFailureCounter(throwable).increment();
+        }
+    }
+
+    /**
+     * 记录订单已保存但数据库库存没有同步扣减的次数，Redis库存和数据库库存不一致，需要对账
+     */
+    public void recordStockMismatch(String reason){
+        counters.computeIfAbsent(METRIC_STOCK_MISMATCH + ":" + reason, (key) -> Counter.builder(METRIC_STOCK_MISMATCH)
+                .description("seckill orders saved without a matching db stock decrement")
+                .tag("type", placeOrderType)
+                .tag("reason", reason)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    private Counter getFailureCounter(Throwable throwable){
+        HttpCode httpCode = throwable instanceof SeckillException ? HttpCode.fromCode(((SeckillException) throwable).getCode()) : null;
+        String reason = httpCode == null ? UNKNOWN : httpCode.name();
+        return counters.computeIfAbsent(reason, (key) -> Counter.builder(METRIC_PLACE_ORDER_FAILURE)
+                .description("seckill place order failures by http code")
+                .tag("type", placeOrderType)
+                .tag("code", httpCode == null ? UNKNOWN : String.valueOf(httpCode.getCode()))
+                .tag("reason", reason)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.order.place.persist;
+
+import com.zzz.seckill.application.order.place.metrics.SeckillPlaceOrderMetrics;
+import com.zzz.seckill.application.service.SeckillGoodsService;
+import com.zzz.seckill.domain.model.entity.SeckillOrder;
+import com.zzz.seckill.domain.service.SeckillOrderDomainService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于Redis扣减库存的下单策略保存订单并同步数据库库存，未开启订单批量写入时二者在同一个事务中提交
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Component
+public class SeckillOrderPersistService {
+    private static final Logger logger = LoggerFactory.getLogger(SeckillOrderPersistService.class);
+
+    @Autowired
+    private SeckillOrderDomainService seckillOrderDomainService;
+    @Autowired
+    private SeckillGoodsService seckillGoodsService;
+    @Autowired
+    private SeckillPlaceOrderMetrics seckillPlaceOrderMetrics;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${order.batch.save.enabled:false}")
+    private boolean orderBatchSaveEnabled;
+
+    /**
+     * 保存订单并同步数据库库存，抛出异常时订单没有保存，由调用方恢复Redis中的库存
+     */
+    public void saveSeckillOrder(SeckillOrder seckillOrder){
+        if (!orderBatchSaveEnabled){
+            //订单和数据库库存在同一个事务中提交，同步库存异常时订单一起回滚
+            transactionTemplate.execute((status) -> {
+                seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_ORDER_INSERT, () -> seckillOrderDomainService.saveSeckillOrder(seckillOrder));
+                this.updateDbAvailableStock(seckillOrder);
+                return null;
+            });
+            return;
+        }
+        //订单合并批量写入，不能和数据库库存放在同一个事务中，订单已保存后以Redis中的库存为准，同步库存失败只记录不一致
+        seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_ORDER_INSERT, () -> seckillOrderDomainService.saveSeckillOrder(seckillOrder));
+        try{
+            this.updateDbAvailableStock(seckillOrder);
+        }catch (Exception e){
+            logger.error("SeckillOrderPersistService|同步数据库库存失败|{},{},{}|{}", seckillOrder.getId(), seckillOrder.getGoodsId(), seckillOrder.getQuantity(), e.getMessage());
+            seckillPlaceOrderMetrics.recordStockMismatch(SeckillPlaceOrderMetrics.MISMATCH_DB_SYNC_FAILED);
+        }
+    }
+
+    private void updateDbAvailableStock(SeckillOrder seckillOrder){
+        boolean updated = seckillPlaceOrderMetrics.record(SeckillPlaceOrderMetrics.STAGE_DB_STOCK_UPDATE, () -> seckillGoodsService.updateDbAvailableStock(seckillOrder.getQuantity(), seckillOrder.getGoodsId()));
+        //Redis中扣减成功但数据库库存不足，保留订单，记录不一致便于对账
+        if (!updated){
+            logger.error("SeckillOrderPersistService|数据库库存不足，与Redis库存不一致|{},{},{}", seckillOrder.getId(), seckillOrder.getGoodsId(), seckillOrder.getQuantity());
+            seckillPlaceOrderMetrics.recordStockMismatch(SeckillPlaceOrderMetrics.MISMATCH_DB_STOCK_LT_ZERO);
+        }
+    }
+}
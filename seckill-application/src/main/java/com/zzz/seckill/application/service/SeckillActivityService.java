@@ -14,6 +14,7 @@
  * limitations under the License.
  */
 package com.zzz.seckill.application.service;
+import com.zzz.seckill.application.cache.model.SeckillEncodedResponse;
 import com.zzz.seckill.domain.model.entity.SeckillActivity;
 
 import com.zzz.seckill.domain.model.dto.SeckillActivityDTO;
@@ -55,6 +56,11 @@ public interface SeckillActivityService {
      */
     SeckillActivity getSeckillActivityById(Long id, Long version);
 
+    /**
+     * 根据id获取编码后的活动详情响应数据(使用缓存)
+     */
+    SeckillEncodedResponse getSeckillActivityResponse(Long id, Long version);
+
     /**
      * 修改状态
      */
@@ -64,4 +70,9 @@ public interface SeckillActivityService {
      * 活动列表
      */
     List<SeckillActivityDTO> getSeckillActivityList(Integer status, Long version);
+
+    /**
+     * 获取编码后的活动列表响应数据(使用缓存)
+     */
+    SeckillEncodedResponse getSeckillActivityListResponse(Integer status, Long version);
 }
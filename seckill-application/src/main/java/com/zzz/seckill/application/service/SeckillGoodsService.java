@@ -15,6 +15,7 @@
  */
 package com.zzz.seckill.application.service;
 
+import com.zzz.seckill.application.cache.model.SeckillEncodedResponse;
 import com.zzz.seckill.application.command.SeckillGoodsCommond;
 import com.zzz.seckill.domain.model.dto.SeckillGoodsDTO;
 import com.zzz.seckill.domain.model.entity.SeckillGoods;
@@ -74,4 +75,14 @@ public interface SeckillGoodsService {
      * 根据id获取商品详细信息（带缓存）
      */
     SeckillGoodsDTO getSeckillGoods(Long id, Long version);
+
+    /**
+     * 根据活动id获取编码后的商品列表响应数据（带缓存）
+     */
+    SeckillEncodedResponse getSeckillGoodsListResponse(Long activityId, Long version);
+
+    /**
+     * 根据id获取编码后的商品详情响应数据（带缓存）
+     */
+    SeckillEncodedResponse getSeckillGoodsResponse(Long id, Long version);
 }
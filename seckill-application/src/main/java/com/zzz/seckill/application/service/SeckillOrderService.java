@@ -35,6 +35,16 @@ public interface SeckillOrderService {
      */
     Long saveSeckillOrder(Long userId, SeckillOrderCommand seckillOrderCommand);
 
+    /**
+     * 获取下单令牌，下单时携带令牌可以避免重复提交
+     */
+    String getOrderToken(Long userId);
+
+    /**
+     * 根据下单凭证获取下单结果
+     */
+    Long getSeckillOrderResult(Long userId, Long ticket);
+
     /**
      * 根据用户id获取订单列表
      */
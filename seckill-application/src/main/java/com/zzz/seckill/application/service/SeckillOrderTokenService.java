@@ -0,0 +1,48 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.service;
+
+import com.zzz.seckill.application.command.SeckillOrderCommand;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 下单令牌，保证同一个令牌的重复提交只下一次单
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public interface SeckillOrderTokenService {
+
+    /**
+     * 为用户发放下单令牌
+     */
+    String getOrderToken(Long userId);
+
+    /**
+     * 认领下单令牌，首次提交返回null，相同下单命令的重复提交返回首次提交的下单结果，令牌不能用于其他下单命令
+     */
+    Long claim(Long userId, SeckillOrderCommand seckillOrderCommand);
+
+    /**
+     * 下单成功，记录令牌对应的下单结果，记录失败不影响下单结果
+     */
+    void complete(Long userId, SeckillOrderCommand seckillOrderCommand, Long orderId);
+
+    /**
+     * 下单失败，释放令牌，客户端可以使用相同的令牌重试
+     */
+    void release(Long userId, String orderToken);
+}
@@ -16,6 +16,8 @@
 package com.zzz.seckill.application.service.impl;
 
 import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.application.cache.model.SeckillEncodedResponse;
+import com.zzz.seckill.application.cache.response.SeckillResponseEncoder;
 import com.zzz.seckill.application.cache.service.activity.SeckillActivityCacheService;
 import com.zzz.seckill.application.cache.service.activity.SeckillActivityListCacheService;
 import com.zzz.seckill.application.service.SeckillActivityService;
@@ -25,7 +27,7 @@ import com.zzz.seckill.domain.model.enums.SeckillActivityStatus;
 import com.zzz.seckill.domain.exception.SeckillException;
 import com.zzz.seckill.domain.service.SeckillActivityDomainService;
 import com.zzz.seckill.infrastructure.utils.beans.BeanUtil;
-import com.zzz.seckill.infrastructure.utils.id.SnowFlakeFactory;
+import com.zzz.seckill.infrastructure.utils.id.IdGeneratorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -49,6 +51,8 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
     private SeckillActivityListCacheService seckillActivityListCacheService;
     @Autowired
     private SeckillActivityCacheService seckillActivityCacheService;
+    @Autowired
+    private SeckillResponseEncoder seckillResponseEncoder;
 
 
     @Override
@@ -59,7 +63,7 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         }
         SeckillActivity seckillActivity = new SeckillActivity();
         BeanUtil.copyProperties(seckillActivityDTO, seckillActivity);
-        seckillActivity.setId(SnowFlakeFactory.getSnowFlakeFromCache().nextId());
+        seckillActivity.setId(IdGeneratorFactory.getIdGenerator().nextId());
         seckillActivity.setStatus(SeckillActivityStatus.PUBLISHED.getCode());
         seckillActivityDomainService.saveSeckillActivity(seckillActivity);
     }
@@ -84,6 +88,16 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
      */
     @Override
     public SeckillActivity getSeckillActivityById(Long id, Long version) {
+        return this.getSeckillActivityCache(id, version).getData();
+    }
+
+    @Override
+    public SeckillEncodedResponse getSeckillActivityResponse(Long id, Long version) {
+        SeckillBusinessCache<SeckillActivity> seckillActivityCache = this.getSeckillActivityCache(id, version);
+        return seckillResponseEncoder.encode(seckillActivityCache, seckillActivityCache::getData);
+    }
+
+    private SeckillBusinessCache<SeckillActivity> getSeckillActivityCache(Long id, Long version) {
         SeckillBusinessCache<SeckillActivity> seckillActivityCache = seckillActivityCacheService.getCachedActivity(id, version);
         if(!seckillActivityCache.isExist()){
             throw new SeckillException(HttpCode.ACTIVITY_NOT_EXISTS);
@@ -91,7 +105,7 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         if(seckillActivityCache.isRetryLater()){
             throw new SeckillException(HttpCode.RETRY_LATER);
         }
-        return seckillActivityCache.getData();
+        return seckillActivityCache;
     }
 
     @Override
@@ -101,6 +115,16 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
 
     @Override
     public List<SeckillActivityDTO> getSeckillActivityList(Integer status, Long version) {
+        return this.toSeckillActivityDTOList(this.getSeckillActivityListCache(status, version));
+    }
+
+    @Override
+    public SeckillEncodedResponse getSeckillActivityListResponse(Integer status, Long version) {
+        SeckillBusinessCache<List<SeckillActivity>> seckillActivitiyListCache = this.getSeckillActivityListCache(status, version);
+        return seckillResponseEncoder.encode(seckillActivitiyListCache, () -> this.toSeckillActivityDTOList(seckillActivitiyListCache));
+    }
+
+    private SeckillBusinessCache<List<SeckillActivity>> getSeckillActivityListCache(Integer status, Long version) {
         SeckillBusinessCache<List<SeckillActivity>> seckillActivitiyListCache = seckillActivityListCacheService.getCachedActivities(status, version);
         if (!seckillActivitiyListCache.isExist()){
             throw new SeckillException(HttpCode.ACTIVITY_NOT_EXISTS);
@@ -109,6 +133,10 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         if (seckillActivitiyListCache.isRetryLater()){
             throw new SeckillException(HttpCode.RETRY_LATER);
         }
+        return seckillActivitiyListCache;
+    }
+
+    private List<SeckillActivityDTO> toSeckillActivityDTOList(SeckillBusinessCache<List<SeckillActivity>> seckillActivitiyListCache) {
         List<SeckillActivityDTO> seckillActivityDTOList = seckillActivitiyListCache.getData().stream().map((seckillActivity) -> {
             SeckillActivityDTO seckillActivityDTO = new SeckillActivityDTO();
             BeanUtil.copyProperties(seckillActivity, seckillActivityDTO);
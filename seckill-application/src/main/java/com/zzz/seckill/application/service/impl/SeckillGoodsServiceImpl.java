@@ -17,6 +17,8 @@ package com.zzz.seckill.application.service.impl;
 
 import com.zzz.seckill.application.builder.SeckillGoodsBuilder;
 import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.application.cache.model.SeckillEncodedResponse;
+import com.zzz.seckill.application.cache.response.SeckillResponseEncoder;
 import com.zzz.seckill.application.cache.service.goods.SeckillGoodsCacheService;
 import com.zzz.seckill.application.cache.service.goods.SeckillGoodsListCacheService;
 import com.zzz.seckill.application.command.SeckillGoodsCommond;
@@ -32,11 +34,12 @@ import com.zzz.seckill.domain.service.SeckillActivityDomainService;
 import com.zzz.seckill.domain.service.SeckillGoodsDomainService;
 import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
 import com.zzz.seckill.infrastructure.utils.beans.BeanUtil;
-import com.zzz.seckill.infrastructure.utils.id.SnowFlakeFactory;
+import com.zzz.seckill.infrastructure.utils.id.IdGeneratorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -59,6 +62,8 @@ public class SeckillGoodsServiceImpl implements SeckillGoodsService {
     private SeckillGoodsCacheService seckillGoodsCacheService;
     @Autowired
     private DistributedCacheService distributedCacheService;
+    @Autowired
+    private SeckillResponseEncoder seckillResponseEncoder;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -74,7 +79,7 @@ public class SeckillGoodsServiceImpl implements SeckillGoodsService {
         seckillGoods.setStartTime(seckillActivity.getStartTime());
         seckillGoods.setEndTime(seckillActivity.getEndTime());
         seckillGoods.setAvailableStock(seckillGoodsCommond.getInitialStock());
-        seckillGoods.setId(SnowFlakeFactory.getSnowFlakeFromCache().nextId());
+        seckillGoods.setId(IdGeneratorFactory.getIdGenerator().nextId());
         seckillGoods.setStatus(SeckillGoodsStatus.PUBLISHED.getCode());
         //将商品的库存同步到Redis
         String key = SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, String.valueOf(seckillGoods.getId()));
@@ -82,9 +87,8 @@ public class SeckillGoodsServiceImpl implements SeckillGoodsService {
             distributedCacheService.put(key, seckillGoods.getAvailableStock());
             seckillGoodsDomainService.saveSeckillGoods(seckillGoods);
         }catch (Exception e){
-            if (distributedCacheService.hasKey(key)){
-                distributedCacheService.delete(key);
-            }
+            //DEL对不存在的key是空操作，不需要先判断
+            distributedCacheService.delete(key);
             throw e;
         }
     }
@@ -114,12 +118,10 @@ public class SeckillGoodsServiceImpl implements SeckillGoodsService {
      * 清空缓存的商品数据
      */
     private void clearCache(String id){
-        //清除缓存中的商品库存
-        distributedCacheService.delete(SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, id));
-        //清除本地缓存中的商品
-        distributedCacheService.delete(SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_KEY_PREFIX, id));
-        //清除商品的限购信息
-        distributedCacheService.delete(SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_LIMIT_KEY_PREFIX, id));
+        //一次删除缓存中的商品库存、商品和限购信息
+        distributedCacheService.multiDelete(Arrays.asList(SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, id),
+                SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_KEY_PREFIX, id),
+                SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_LIMIT_KEY_PREFIX, id)));
     }
 
     @Override
@@ -138,6 +140,16 @@ public class SeckillGoodsServiceImpl implements SeckillGoodsService {
 
     @Override
     public List<SeckillGoodsDTO> getSeckillGoodsList(Long activityId, Long version) {
+        return this.toSeckillGoodsDTOList(this.getSeckillGoodsListCache(activityId, version));
+    }
+
+    @Override
+    public SeckillEncodedResponse getSeckillGoodsListResponse(Long activityId, Long version) {
+        SeckillBusinessCache<List<SeckillGoods>> seckillGoodsListCache = this.getSeckillGoodsListCache(activityId, version);
+        return seckillResponseEncoder.encode(seckillGoodsListCache, () -> this.toSeckillGoodsDTOList(seckillGoodsListCache));
+    }
+
+    private SeckillBusinessCache<List<SeckillGoods>> getSeckillGoodsListCache(Long activityId, Long version) {
         if (activityId == null){
             throw new SeckillException(HttpCode.ACTIVITY_NOT_EXISTS);
         }
@@ -149,6 +161,10 @@ public class SeckillGoodsServiceImpl implements SeckillGoodsService {
         if (!seckillGoodsListCache.isExist()){
             throw new SeckillException(HttpCode.ACTIVITY_NOT_EXISTS);
         }
+        return seckillGoodsListCache;
+    }
+
+    private List<SeckillGoodsDTO> toSeckillGoodsDTOList(SeckillBusinessCache<List<SeckillGoods>> seckillGoodsListCache) {
         List<SeckillGoodsDTO> seckillActivityDTOList = seckillGoodsListCache.getData().stream().map((seckillGoods) -> {
             SeckillGoodsDTO seckillGoodsDTO = new SeckillGoodsDTO();
             BeanUtil.copyProperties(seckillGoods, seckillGoodsDTO);
@@ -160,6 +176,16 @@ public class SeckillGoodsServiceImpl implements SeckillGoodsService {
 
     @Override
     public SeckillGoodsDTO getSeckillGoods(Long id, Long version) {
+        return this.toSeckillGoodsDTO(this.getSeckillGoodsCache(id, version));
+    }
+
+    @Override
+    public SeckillEncodedResponse getSeckillGoodsResponse(Long id, Long version) {
+        SeckillBusinessCache<SeckillGoods> seckillGoodsCache = this.getSeckillGoodsCache(id, version);
+        return seckillResponseEncoder.encode(seckillGoodsCache, () -> this.toSeckillGoodsDTO(seckillGoodsCache));
+    }
+
+    private SeckillBusinessCache<SeckillGoods> getSeckillGoodsCache(Long id, Long version) {
         if (id == null){
             throw new SeckillException(HttpCode.PARAMS_INVALID);
         }
@@ -172,6 +198,10 @@ public class SeckillGoodsServiceImpl implements SeckillGoodsService {
         if (!seckillGoodsCache.isExist()){
             throw new SeckillException(HttpCode.ACTIVITY_NOT_EXISTS);
         }
+        return seckillGoodsCache;
+    }
+
+    private SeckillGoodsDTO toSeckillGoodsDTO(SeckillBusinessCache<SeckillGoods> seckillGoodsCache) {
         SeckillGoodsDTO seckillGoodsDTO = SeckillGoodsBuilder.toSeckillGoodsDTO(seckillGoodsCache.getData());
         seckillGoodsDTO.setVersion(seckillGoodsCache.getVersion());
         return seckillGoodsDTO;
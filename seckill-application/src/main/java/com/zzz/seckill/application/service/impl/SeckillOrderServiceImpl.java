@@ -18,6 +18,7 @@ import com.zzz.seckill.domain.model.entity.SeckillOrder;
 import com.zzz.seckill.domain.model.entity.SeckillGoods;
 import com.zzz.seckill.application.service.SeckillGoodsService;
 import com.zzz.seckill.application.service.SeckillOrderService;
+import com.zzz.seckill.application.service.SeckillOrderTokenService;
 import com.zzz.seckill.domain.code.HttpCode;
 import com.zzz.seckill.domain.model.dto.SeckillOrderDTO;
 import com.zzz.seckill.domain.model.enums.SeckillGoodsStatus;
@@ -28,10 +29,14 @@ import com.zzz.seckill.infrastructure.utils.beans.BeanUtil;
 import com.zzz.seckill.infrastructure.utils.id.SnowFlakeFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import com.zzz.seckill.application.order.place.SeckillPlaceOrderService;
+import com.zzz.seckill.application.order.place.metrics.SeckillPlaceOrderMetrics;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 import com.zzz.seckill.application.command.SeckillOrderCommand;
 import java.util.List;
 
@@ -44,21 +49,74 @@ import java.util.List;
  */
 @Service
 public class SeckillOrderServiceImpl implements SeckillOrderService {
+    //在扣减库存之前抛出的异常码，此时没有任何数据被修改，可以释放下单令牌
+    private static final Set<Integer> RELEASE_TOKEN_CODES = new HashSet<>(Arrays.asList(
+            HttpCode.PARAMS_INVALID.getCode(), HttpCode.STOCK_LT_ZERO.getCode(), HttpCode.GOODS_NOT_EXISTS.getCode(),
+            HttpCode.ACTIVITY_NOT_EXISTS.getCode(), HttpCode.BEYOND_LIMIT_NUM.getCode(), HttpCode.GOODS_OFFLINE.getCode(),
+            HttpCode.USER_INVALID.getCode(), HttpCode.GOODS_PUBLISH.getCode(), HttpCode.STOCK_IS_NULL.getCode(),
+            HttpCode.GOODS_LIMIT_REACHED.getCode()));
+
     @Autowired
     private SeckillGoodsService seckillGoodsService;
     @Autowired
     private SeckillOrderRepository seckillOrderRepository;
     @Autowired
     private SeckillPlaceOrderService seckillPlaceOrderService;
+    @Autowired
+    private SeckillPlaceOrderMetrics seckillPlaceOrderMetrics;
+    @Autowired
+    private SeckillOrderTokenService seckillOrderTokenService;
 
+    /**
+     * 事务由各下单策略自行控制，基于Redis扣减库存的策略只在保存订单和同步数据库库存时开启事务，开启订单批量写入时不开启事务
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public Long saveSeckillOrder(Long userId, SeckillOrderCommand seckillOrderCommand) {
         if (seckillOrderCommand == null){
             throw new SeckillException(HttpCode.PARAMS_INVALID);
         }
+        String orderToken = seckillOrderCommand.getOrderToken();
+        if (StringUtils.isEmpty(orderToken)){
+            return this.placeOrder(userId, seckillOrderCommand);
+        }
+        //重复提交直接返回首次下单结果，不再扣减库存和写入订单
+        Long orderId = seckillOrderTokenService.claim(userId, seckillOrderCommand);
+        if (orderId != null){
+            return orderId;
+        }
+        try{
+            orderId = this.placeOrder(userId, seckillOrderCommand);
+        }catch (SeckillException e){
+            //只有确定未扣减库存和写入订单时才释放令牌，其他情况令牌保持处理中状态，过期后客户端重新获取令牌
+            if (RELEASE_TOKEN_CODES.contains(e.getCode())){
+                seckillOrderTokenService.release(userId, orderToken);
+            }
+            throw e;
+        }
+        seckillOrderTokenService.complete(userId, seckillOrderCommand, orderId);
+        return orderId;
+    }
+
+    @Override
+    public String getOrderToken(Long userId) {
+        return seckillOrderTokenService.getOrderToken(userId);
+    }
+
+    private Long placeOrder(Long userId, SeckillOrderCommand seckillOrderCommand){
+        long startNanos = System.nanoTime();
+        try{
+            Long orderId = seckillPlaceOrderService.placeOrder(userId, seckillOrderCommand);
+            seckillPlaceOrderMetrics.recordPlaceOrder(startNanos, null);
+            return orderId;
+        }catch (RuntimeException e){
+            seckillPlaceOrderMetrics.recordPlaceOrder(startNanos, e);
+            throw e;
+        }
+    }
 
-        return seckillPlaceOrderService.placeOrder(userId, seckillOrderCommand);
+    @Override
+    public Long getSeckillOrderResult(Long userId, Long ticket) {
+        return seckillPlaceOrderService.getPlaceOrderResult(userId, ticket);
     }
 
     @Override
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.service.impl;
+
+import com.zzz.seckill.application.command.SeckillOrderCommand;
+import com.zzz.seckill.application.service.SeckillOrderTokenService;
+import com.zzz.seckill.domain.code.HttpCode;
+import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.domain.exception.SeckillException;
+import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheManager;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import com.zzz.seckill.infrastructure.utils.string.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.UUID;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 下单令牌，令牌状态保存在Redis中，下单结果在本地缓存中保存一份，重试风暴时重复提交不再访问Redis
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+public class SeckillOrderTokenServiceImpl implements SeckillOrderTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(SeckillOrderTokenServiceImpl.class);
+    //令牌状态：已发放未使用
+    private static final Integer TOKEN_ISSUED = 0;
+
+    @Autowired
+    private DistributedCacheService distributedCacheService;
+    @Autowired
+    private LocalCacheManager localCacheManager;
+    //令牌和下单命令对应的下单结果
+    private LocalCacheService<String, Long> localCacheService;
+
+    @PostConstruct
+    public void init(){
+        localCacheService = localCacheManager.getCache(SeckillConstants.LOCAL_CACHE_REGION_ORDER_TOKEN);
+    }
+
+    @Override
+    public String getOrderToken(Long userId) {
+        if (userId == null){
+            throw new SeckillException(HttpCode.PARAMS_INVALID);
+        }
+        String orderToken = UUID.randomUUID().toString().replace("-", "");
+        distributedCacheService.put(this.buildTokenKey(userId, orderToken), TOKEN_ISSUED, SeckillConstants.FIVE_MINUTES);
+        return orderToken;
+    }
+
+    @Override
+    public Long claim(Long userId, SeckillOrderCommand seckillOrderCommand) {
+        if (seckillOrderCommand.getGoodsId() == null || seckillOrderCommand.getQuantity() == null){
+            throw new SeckillException(HttpCode.PARAMS_INVALID);
+        }
+        String orderToken = seckillOrderCommand.getOrderToken();
+        String localKey = this.buildLocalKey(userId, seckillOrderCommand);
+        //重复提交优先从本地缓存获取下单结果，本地缓存的key包含下单命令，其他下单命令复用令牌时不会命中
+        Long orderId = localCacheService.getIfPresent(localKey);
+        if (orderId != null){
+            return orderId;
+        }
+        Long result = distributedCacheService.claimOrderTokenByLua(this.buildTokenKey(userId, orderToken), SeckillConstants.FIVE_MINUTES,
+                seckillOrderCommand.getGoodsId(), seckillOrderCommand.getQuantity());
+        //分布式缓存不支持Lua脚本时不做幂等处理
+        if (result == null || result == SeckillConstants.LUA_RESULT_ORDER_TOKEN_CLAIMED){
+            return null;
+        }
+        //令牌已经被其他下单命令认领，不能返回其他下单命令的下单结果
+        if (result == SeckillConstants.LUA_RESULT_ORDER_TOKEN_NOT_EXISTS || result == SeckillConstants.LUA_RESULT_ORDER_TOKEN_MISMATCH){
+            throw new SeckillException(HttpCode.ORDER_TOKEN_INVALID);
+        }
+        String orderIdStr = distributedCacheService.getString(this.buildResultKey(userId, orderToken));
+        //首次提交还未处理完成
+        if (orderIdStr == null){
+            throw new SeckillException(HttpCode.ORDER_PROCESSING);
+        }
+        orderId = Long.valueOf(orderIdStr);
+        localCacheService.put(localKey, orderId);
+        return orderId;
+    }
+
+    @Override
+    public void complete(Long userId, SeckillOrderCommand seckillOrderCommand, Long orderId) {
+        if (orderId == null){
+            return;
+        }
+        //订单已经保存，先记录本地结果，分布式缓存写入失败时当前节点仍能返回下单结果
+        localCacheService.put(this.buildLocalKey(userId, seckillOrderCommand), orderId);
+        try {
+            distributedCacheService.put(this.buildResultKey(userId, seckillOrderCommand.getOrderToken()), String.valueOf(orderId), SeckillConstants.FIVE_MINUTES);
+        } catch (Exception e) {
+            logger.error("SeckillOrderTokenService|记录下单结果失败|{},{}|{}", userId, orderId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void release(Long userId, String orderToken) {
+        try {
+            distributedCacheService.put(this.buildTokenKey(userId, orderToken), TOKEN_ISSUED, SeckillConstants.FIVE_MINUTES);
+        } catch (Exception e) {
+            //释放失败时令牌保持处理中状态，过期后客户端重新获取令牌
+            logger.error("SeckillOrderTokenService|释放下单令牌失败|{}|{}", userId, e.getMessage());
+        }
+    }
+
+    private String buildLocalKey(Long userId, SeckillOrderCommand seckillOrderCommand){
+        return StringUtil.append(userId, seckillOrderCommand.getOrderToken(), seckillOrderCommand.getGoodsId(), seckillOrderCommand.getQuantity());
+    }
+
+    private String buildTokenKey(Long userId, String orderToken){
+        return SeckillConstants.getKey(SeckillConstants.ORDER_TOKEN_KEY_PREFIX, StringUtil.append(userId, orderToken));
+    }
+
+    private String buildResultKey(Long userId, String orderToken){
+        return SeckillConstants.getKey(SeckillConstants.ORDER_TOKEN_RESULT_KEY_PREFIX, StringUtil.append(userId, orderToken));
+    }
+}
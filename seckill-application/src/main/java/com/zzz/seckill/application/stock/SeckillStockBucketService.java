@@ -0,0 +1,41 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.stock;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 本地库存分桶服务，从Redis中批量租借库存到本地进行扣减
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public interface SeckillStockBucketService {
+
+    /**
+     * 扣减本地库存，本地库存不足时从Redis中租借库存，商品售罄时返回false
+     */
+    boolean decrementStock(Long goodsId, Integer quantity);
+
+    /**
+     * 增加本地库存，用于下单失败时归还已扣减的库存
+     */
+    void incrementStock(Long goodsId, Integer quantity);
+
+    /**
+     * 将本地剩余的库存归还到Redis，并移除本地库存
+     */
+    void releaseStock(Long goodsId);
+}
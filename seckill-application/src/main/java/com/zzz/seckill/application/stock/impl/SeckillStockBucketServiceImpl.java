@@ -0,0 +1,161 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.application.stock.impl;
+
+import com.zzz.seckill.application.stock.SeckillStockBucketService;
+import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
+import com.zzz.seckill.infrastructure.cache.soldout.SoldOutCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 本地库存分桶服务，每个商品对应一个CAS计数器，本地库存用完后再从Redis中租借
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "place.order.type", havingValue = "bucket")
+public class SeckillStockBucketServiceImpl implements SeckillStockBucketService {
+    private static final Logger logger = LoggerFactory.getLogger(SeckillStockBucketServiceImpl.class);
+
+    private final Map<Long, StockBucket> stockBucketMap = new ConcurrentHashMap<>();
+
+    @Autowired
+    private DistributedCacheService distributedCacheService;
+    @Autowired
+    private SoldOutCacheService soldOutCacheService;
+
+    @Value("${place.order.bucket.lease.size:50}")
+    private Integer leaseSize;
+
+    @Override
+    public boolean decrementStock(Long goodsId, Integer quantity) {
+        while (true){
+            StockBucket stockBucket = stockBucketMap.computeIfAbsent(goodsId, (key) -> new StockBucket());
+            //桶已经被释放，商品已下架，不再扣减和租借库存
+            if (stockBucket.closed){
+                return false;
+            }
+            //本地库存充足，直接在本地扣减
+            if (stockBucket.tryDecrement(quantity)){
+                return true;
+            }
+            //本地库存不足，从Redis中租借库存
+            synchronized (stockBucket){
+                //桶已经被释放，商品已下架，不能再从Redis中租借库存
+                if (stockBucket.closed){
+                    return false;
+                }
+                //其他线程已经租借到库存
+                if (stockBucket.available.get() >= quantity){
+                    continue;
+                }
+                String key = this.getKey(goodsId);
+                Long result = distributedCacheService.leaseByLua(key, Math.max(leaseSize, quantity));
+                if (result == null){
+                    return false;
+                }
+                //Redis中已无库存，但本地还有少量库存可以满足其他请求，此时不标记售罄
+                if (result == SeckillConstants.LUA_RESULT_GOODS_STOCK_LT_ZERO && stockBucket.available.get() > 0){
+                    return false;
+                }
+                //其他节点的本地桶中可能还有租借到的库存，售罄标识只在当前节点生效，不广播
+                if (result == SeckillConstants.LUA_RESULT_GOODS_STOCK_LT_ZERO){
+                    soldOutCacheService.markLocalSoldOut(key);
+                }
+                distributedCacheService.checkResult(result);
+                stockBucket.available.addAndGet(result);
+                logger.info("stockBucket|从Redis中租借库存|{},{}", goodsId, result);
+            }
+        }
+    }
+
+    @Override
+    public void incrementStock(Long goodsId, Integer quantity) {
+        StockBucket stockBucket = stockBucketMap.get(goodsId);
+        if (stockBucket != null){
+            synchronized (stockBucket){
+                if (!stockBucket.closed){
+                    stockBucket.available.addAndGet(quantity);
+                    return;
+                }
+            }
+        }
+        //本地库存已释放，直接归还到Redis
+        distributedCacheService.incrementByLua(this.getKey(goodsId), quantity);
+    }
+
+    @Override
+    public void releaseStock(Long goodsId) {
+        StockBucket stockBucket = stockBucketMap.get(goodsId);
+        if (stockBucket == null){
+            return;
+        }
+        long leftover;
+        //先在锁内标记关闭，持有旧桶的并发扣减请求不会再租借库存
+        synchronized (stockBucket){
+            if (stockBucket.closed){
+                return;
+            }
+            stockBucket.closed = true;
+            leftover = stockBucket.available.getAndSet(0);
+        }
+        stockBucketMap.remove(goodsId, stockBucket);
+        if (leftover > 0){
+            distributedCacheService.incrementByLua(this.getKey(goodsId), (int) leftover);
+            logger.info("stockBucket|归还本地剩余库存到Redis|{},{}", goodsId, leftover);
+        }
+    }
+
+    @PreDestroy
+    public void destroy(){
+        stockBucketMap.keySet().forEach(this::releaseStock);
+    }
+
+    private String getKey(Long goodsId){
+        return SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, String.valueOf(goodsId));
+    }
+
+    /**
+     * 商品的本地库存桶
+     */
+    private static class StockBucket {
+        private final AtomicLong available = new AtomicLong(0);
+        private volatile boolean closed;
+
+        private boolean tryDecrement(long quantity){
+            long current;
+            while ((current = available.get()) >= quantity){
+                if (available.compareAndSet(current, current - quantity)){
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
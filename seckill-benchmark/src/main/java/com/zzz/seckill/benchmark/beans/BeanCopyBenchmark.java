@@ -0,0 +1,119 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.benchmark.beans;
+
+import com.zzz.seckill.domain.model.dto.SeckillActivityDTO;
+import com.zzz.seckill.domain.model.dto.SeckillGoodsDTO;
+import com.zzz.seckill.domain.model.entity.SeckillActivity;
+import com.zzz.seckill.domain.model.entity.SeckillGoods;
+import com.zzz.seckill.infrastructure.utils.beans.BeanUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 对比BeanUtil基于LambdaMetafactory和基于反射的属性复制性能
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanCopyBenchmark {
+
+    private SeckillGoods seckillGoods;
+    private SeckillActivity seckillActivity;
+
+    @Setup
+    public void setup(){
+        seckillGoods = new SeckillGoods();
+        seckillGoods.setId(1001L);
+        seckillGoods.setGoodsName("秒杀商品");
+        seckillGoods.setActivityId(1L);
+        seckillGoods.setStartTime(new Date());
+        seckillGoods.setEndTime(new Date());
+        seckillGoods.setOriginalPrice(new BigDecimal("99.00"));
+        seckillGoods.setActivityPrice(new BigDecimal("9.90"));
+        seckillGoods.setInitialStock(100);
+        seckillGoods.setAvailableStock(100);
+        seckillGoods.setLimitNum(1);
+        //空字符串不会被复制
+        seckillGoods.setDescription("");
+        seckillGoods.setStatus(1);
+
+        seckillActivity = new SeckillActivity();
+        seckillActivity.setId(1L);
+        seckillActivity.setActivityName("秒杀活动");
+        seckillActivity.setStartTime(new Date());
+        seckillActivity.setEndTime(new Date());
+        seckillActivity.setStatus(1);
+    }
+
+    @Benchmark
+    public SeckillGoodsDTO copyGoodsByLambda(){
+        SeckillGoodsDTO seckillGoodsDTO = new SeckillGoodsDTO();
+        BeanUtil.copyProperties(seckillGoods, seckillGoodsDTO);
+        return seckillGoodsDTO;
+    }
+
+    @Benchmark
+    public SeckillGoodsDTO copyGoodsByReflection(){
+        SeckillGoodsDTO seckillGoodsDTO = new SeckillGoodsDTO();
+        BeanUtil.copyPropertiesByReflection(seckillGoods, seckillGoodsDTO);
+        return seckillGoodsDTO;
+    }
+
+    @Benchmark
+    public SeckillActivityDTO copyActivityByLambda(){
+        SeckillActivityDTO seckillActivityDTO = new SeckillActivityDTO();
+        BeanUtil.copyProperties(seckillActivity, seckillActivityDTO);
+        return seckillActivityDTO;
+    }
+
+    @Benchmark
+    public SeckillActivityDTO copyActivityByReflection(){
+        SeckillActivityDTO seckillActivityDTO = new SeckillActivityDTO();
+        BeanUtil.copyPropertiesByReflection(seckillActivity, seckillActivityDTO);
+        return seckillActivityDTO;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BeanCopyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
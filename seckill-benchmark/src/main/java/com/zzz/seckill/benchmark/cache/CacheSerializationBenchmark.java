@@ -0,0 +1,135 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.benchmark.cache;
+
+import com.alibaba.fastjson.JSON;
+import com.zzz.seckill.application.builder.common.SeckillCommonBuilder;
+import com.zzz.seckill.application.cache.codec.SeckillBusinessCacheCodec;
+import com.zzz.seckill.application.cache.model.SeckillBusinessCache;
+import com.zzz.seckill.domain.model.entity.SeckillGoods;
+import com.zzz.seckill.infrastructure.utils.serializer.ProtoStuffSerializerUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 商品列表缓存的序列化和反序列化：fastjson、ProtoStuffSerializerUtils和SeckillBusinessCacheCodec
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializationBenchmark {
+
+    @Param({"1", "20", "200"})
+    private int size;
+
+    private SeckillBusinessCache<List<SeckillGoods>> seckillGoodsListCache;
+    private String json;
+    private byte[] protostuffBytes;
+    private byte[] codecBytes;
+
+    @Setup
+    public void setup(){
+        List<SeckillGoods> seckillGoodsList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++){
+            seckillGoodsList.add(newSeckillGoods(i));
+        }
+        seckillGoodsListCache = new SeckillBusinessCache<List<SeckillGoods>>().with(seckillGoodsList).withVersion(System.currentTimeMillis());
+        json = JSON.toJSONString(seckillGoodsListCache);
+        protostuffBytes = ProtoStuffSerializerUtils.serializeList(seckillGoodsList);
+        codecBytes = SeckillBusinessCacheCodec.encodeList(seckillGoodsListCache, SeckillGoods.class);
+    }
+
+    @Benchmark
+    public String fastjsonEncode(){
+        return JSON.toJSONString(seckillGoodsListCache);
+    }
+
+    @Benchmark
+    public SeckillBusinessCache<List<SeckillGoods>> fastjsonDecode(){
+        return SeckillCommonBuilder.getSeckillBusinessCacheList(json, SeckillGoods.class);
+    }
+
+    @Benchmark
+    public byte[] protostuffUtilsEncode(){
+        return ProtoStuffSerializerUtils.serializeList(seckillGoodsListCache.getData());
+    }
+
+    @Benchmark
+    public List<SeckillGoods> protostuffUtilsDecode(){
+        return ProtoStuffSerializerUtils.deserializeList(protostuffBytes, SeckillGoods.class);
+    }
+
+    @Benchmark
+    public byte[] codecEncode(){
+        return SeckillBusinessCacheCodec.encodeList(seckillGoodsListCache, SeckillGoods.class);
+    }
+
+    @Benchmark
+    public SeckillBusinessCache<List<SeckillGoods>> codecDecode(){
+        return SeckillBusinessCacheCodec.decodeList(codecBytes, SeckillGoods.class);
+    }
+
+    private static SeckillGoods newSeckillGoods(long id){
+        SeckillGoods seckillGoods = new SeckillGoods();
+        seckillGoods.setId(id);
+        seckillGoods.setGoodsName("秒杀商品" + id);
+        seckillGoods.setActivityId(1L);
+        seckillGoods.setStartTime(new Date());
+        seckillGoods.setEndTime(new Date());
+        seckillGoods.setOriginalPrice(new BigDecimal("99.00"));
+        seckillGoods.setActivityPrice(new BigDecimal("9.90"));
+        seckillGoods.setInitialStock(100);
+        seckillGoods.setAvailableStock(100);
+        seckillGoods.setLimitNum(1);
+        seckillGoods.setDescription("秒杀商品描述");
+        seckillGoods.setImgUrl("/images/goods.png");
+        seckillGoods.setStatus(1);
+        return seckillGoods;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CacheSerializationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
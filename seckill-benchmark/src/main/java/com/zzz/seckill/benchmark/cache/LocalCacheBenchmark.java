@@ -0,0 +1,99 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.benchmark.cache;
+
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import com.zzz.seckill.infrastructure.cache.local.caffeine.CaffeineLocalCacheFactory;
+import com.zzz.seckill.infrastructure.cache.local.caffeine.CaffeineLocalCacheService;
+import com.zzz.seckill.infrastructure.cache.local.guava.GuavaLocalCacheService;
+import com.zzz.seckill.infrastructure.cache.local.guava.LocalCacheFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 本地缓存的读写吞吐量，多个线程共享同一个缓存实例
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class LocalCacheBenchmark {
+
+    private static final long MAXIMUM_SIZE = 10000;
+    private static final long EXPIRE_AFTER_WRITE = 60000;
+
+    @Param({"guava", "caffeine"})
+    private String type;
+    //缓存中key的数量
+    @Param({"100", "10000"})
+    private int keys;
+
+    private LocalCacheService<Long, String> localCacheService;
+
+    @Setup
+    public void setup(){
+        if ("caffeine".equals(type)){
+            localCacheService = new CaffeineLocalCacheService<>(CaffeineLocalCacheFactory.getLocalCache(MAXIMUM_SIZE, EXPIRE_AFTER_WRITE, 0, null));
+        }else {
+            localCacheService = new GuavaLocalCacheService<>(LocalCacheFactory.getLocalCache(MAXIMUM_SIZE, EXPIRE_AFTER_WRITE));
+        }
+        for (long i = 0; i < keys; i++){
+            localCacheService.put(i, String.valueOf(i));
+        }
+    }
+
+    @Benchmark
+    public String get(){
+        return localCacheService.getIfPresent(ThreadLocalRandom.current().nextLong(keys));
+    }
+
+    @Benchmark
+    public void put(){
+        long key = ThreadLocalRandom.current().nextLong(keys);
+        localCacheService.put(key, String.valueOf(key));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LocalCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.benchmark.order;
+
+import com.zzz.seckill.application.command.SeckillOrderCommand;
+import com.zzz.seckill.application.order.place.SeckillPlaceOrderService;
+import com.zzz.seckill.domain.model.dto.SeckillGoodsDTO;
+import com.zzz.seckill.domain.model.entity.SeckillOrder;
+import com.zzz.seckill.domain.model.enums.SeckillGoodsStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 下单过程中与存储无关的部分：校验商品和构建订单
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceOrderBenchmark {
+
+    private static final Long USER_ID = 1001L;
+
+    //只使用接口中的默认方法，不需要真正下单
+    private final SeckillPlaceOrderService seckillPlaceOrderService = (userId, seckillOrderCommand) -> null;
+    private SeckillOrderCommand seckillOrderCommand;
+    private SeckillGoodsDTO seckillGoods;
+
+    @Setup
+    public void setup(){
+        seckillOrderCommand = new SeckillOrderCommand();
+        seckillOrderCommand.setGoodsId(1L);
+        seckillOrderCommand.setActivityId(1L);
+        seckillOrderCommand.setQuantity(1);
+
+        seckillGoods = new SeckillGoodsDTO();
+        seckillGoods.setId(1L);
+        seckillGoods.setGoodsName("秒杀商品");
+        seckillGoods.setActivityId(1L);
+        seckillGoods.setStartTime(new Date());
+        seckillGoods.setEndTime(new Date());
+        seckillGoods.setActivityPrice(new BigDecimal("9.90"));
+        seckillGoods.setLimitNum(1);
+        seckillGoods.setAvailableStock(100);
+        seckillGoods.setStatus(SeckillGoodsStatus.ONLINE.getCode());
+    }
+
+    @Benchmark
+    public SeckillOrder buildSeckillOrder(){
+        return seckillPlaceOrderService.buildSeckillOrder(USER_ID, seckillOrderCommand, seckillGoods);
+    }
+
+    @Benchmark
+    public SeckillGoodsDTO checkSeckillGoods(){
+        seckillPlaceOrderService.checkSeckillGoods(seckillOrderCommand, seckillGoods);
+        return seckillGoods;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PlaceOrderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
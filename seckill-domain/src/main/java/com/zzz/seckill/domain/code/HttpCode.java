@@ -15,6 +15,9 @@
  */
 package com.zzz.seckill.domain.code;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * @author binghe(微信 : hacker_binghe)
  * @version 1.0.0
@@ -44,7 +47,18 @@ public enum HttpCode {
     USER_INVALID(2017, "当前账户异常，不能参与秒杀"),
     GOODS_PUBLISH(2018, "商品未上线"),
     ORDER_FAILED(2019, "下单失败"),
-    STOCK_IS_NULL(2020, "商品库存不存在");
+    STOCK_IS_NULL(2020, "商品库存不存在"),
+    ORDER_PROCESSING(2021, "订单处理中"),
+    GOODS_LIMIT_REACHED(2022, "已达到商品限购数量"),
+    ORDER_TOKEN_INVALID(2023, "下单令牌无效或已过期");
+
+    private static final Map<Integer, HttpCode> CODES = new HashMap<>();
+
+    static {
+        for (HttpCode httpCode : values()){
+            CODES.put(httpCode.code, httpCode);
+        }
+    }
 
     private final Integer code;
     private final String mesaage;
@@ -61,4 +75,11 @@ public enum HttpCode {
     public String getMesaage() {
         return mesaage;
     }
+
+    /**
+     * 根据状态码获取枚举，未定义的状态码返回null
+     */
+    public static HttpCode fromCode(Integer code){
+        return code == null ? null : CODES.get(code);
+    }
 }
@@ -37,6 +37,36 @@ public class SeckillConstants {
      * LUA脚本库存不足
      */
     public static final int LUA_RESULT_GOODS_STOCK_LT_ZERO = -3;
+
+    /**
+     * LUA脚本用户已购数量达到限购数量
+     */
+    public static final int LUA_RESULT_GOODS_LIMIT_REACHED = -4;
+
+    /**
+     * LUA脚本商品库存已售罄，剩余库存为0
+     */
+    public static final int LUA_RESULT_GOODS_SOLD_OUT = -5;
+
+    /**
+     * LUA脚本下单令牌不存在或者已过期
+     */
+    public static final int LUA_RESULT_ORDER_TOKEN_NOT_EXISTS = -1;
+
+    /**
+     * LUA脚本下单令牌认领成功
+     */
+    public static final int LUA_RESULT_ORDER_TOKEN_CLAIMED = 1;
+
+    /**
+     * LUA脚本下单令牌已经被认领，属于重复提交
+     */
+    public static final int LUA_RESULT_ORDER_TOKEN_REPLAYED = 2;
+
+    /**
+     * LUA脚本下单令牌已经被其他下单命令认领
+     */
+    public static final int LUA_RESULT_ORDER_TOKEN_MISMATCH = -2;
     /**
      * 商品key前缀
      */
@@ -52,16 +82,51 @@ public class SeckillConstants {
      */
     public static final String ORDER_LOCK_KEY_PREFIX = "order:lock:";
 
+    /**
+     * 异步下单凭证结果Key前缀
+     */
+    public static final String ORDER_TICKET_KEY_PREFIX = "order:ticket:";
+
+    /**
+     * 下单令牌Key前缀
+     */
+    public static final String ORDER_TOKEN_KEY_PREFIX = "order:token:";
+
+    /**
+     * 下单令牌对应的下单结果Key前缀
+     */
+    public static final String ORDER_TOKEN_RESULT_KEY_PREFIX = "order:token:result:";
+
+    /**
+     * 异步下单消息主题
+     */
+    public static final String TOPIC_ORDER_MSG = "topic_order_msg";
+
+    /**
+     * 商品售罄标识广播频道
+     */
+    public static final String CHANNEL_GOODS_SOLD_OUT = "channel_goods_sold_out";
+
+    /**
+     * 本地缓存同步广播频道
+     */
+    public static final String CHANNEL_LOCAL_CACHE_SYNC = "channel_local_cache_sync";
+
     /**
      * 商品库存的Key
      */
     public static final String GOODS_ITEM_STOCK_KEY_PREFIX = "item:stock:";
 
     /**
-     * 商品限购数量Key
+     * 商品限购数量Key，Hash结构，field为用户id，value为用户已购数量
      */
     public static final String GOODS_ITEM_LIMIT_KEY_PREFIX = "item:limit:";
 
+    /**
+     * 活动结束后商品限购数量Key保留的时间，单位毫秒，用于下单失败时归还用户已购数量
+     */
+    public static final long GOODS_ITEM_LIMIT_EXPIRE_DELAY = 24 * 60 * 60 * 1000L;
+
     /**
      * 商品上架标识
      */
@@ -110,4 +175,11 @@ public class SeckillConstants {
 
     public static final String SECKILL_GOODS_CACHE_KEY = "SECKILL_GOODS_CACHE_KEY";
     public static final String SECKILL_GOODSES_CACHE_KEY = "SECKILL_GOODSES_CACHE_KEY";
+
+    /*****************本地缓存区域****************/
+    public static final String LOCAL_CACHE_REGION_ACTIVITY = "activity";
+    public static final String LOCAL_CACHE_REGION_ACTIVITY_LIST = "activity-list";
+    public static final String LOCAL_CACHE_REGION_GOODS = "goods";
+    public static final String LOCAL_CACHE_REGION_GOODS_LIST = "goods-list";
+    public static final String LOCAL_CACHE_REGION_ORDER_TOKEN = "order-token";
 }
@@ -41,4 +41,9 @@ public interface SeckillOrderRepository {
      * 根据活动id获取订单列表
      */
     List<SeckillOrder> getSeckillOrderByActivityId(Long activityId);
+
+    /**
+     * 根据订单id获取订单
+     */
+    SeckillOrder getSeckillOrderById(Long id);
 }
@@ -42,4 +42,9 @@ public interface SeckillOrderDomainService {
      * 根据活动id获取订单列表
      */
     List<SeckillOrder> getSeckillOrderByActivityId(Long activityId);
+
+    /**
+     * 根据订单id获取订单
+     */
+    SeckillOrder getSeckillOrderById(Long id);
 }
@@ -15,7 +15,6 @@
  */
 package com.zzz.seckill.domain.service.impl;
 
-import com.alibaba.fastjson.JSON;
 import com.zzz.seckill.domain.code.HttpCode;
 import com.zzz.seckill.domain.event.SeckillOrderEvent;
 import com.zzz.seckill.domain.event.publisher.EventPublisher;
@@ -49,14 +48,14 @@ public class SeckillOrderDomainServiceImpl implements SeckillOrderDomainService
 
     @Override
     public boolean saveSeckillOrder(SeckillOrder seckillOrder) {
-        logger.info("saveSeckillOrder|下单|{}", JSON.toJSONString(seckillOrder));
         if (seckillOrder == null){
             throw new SeckillException(HttpCode.PARAMS_INVALID);
         }
+        logger.info("saveSeckillOrder|下单|{}|{}|{}|{}", seckillOrder.getId(), seckillOrder.getUserId(), seckillOrder.getGoodsId(), seckillOrder.getQuantity());
         seckillOrder.setStatus(SeckillOrderStatus.CREATED.getCode());
         boolean saveSuccess = seckillOrderRepository.saveSeckillOrder(seckillOrder);
         if (saveSuccess){
-            logger.info("saveSeckillOrder|创建订单成功|{}", JSON.toJSONString(seckillOrder));
+            logger.info("saveSeckillOrder|创建订单成功|{}", seckillOrder.getId());
             SeckillOrderEvent seckillOrderEvent = new SeckillOrderEvent(seckillOrder.getId(), SeckillOrderStatus.CREATED.getCode());
             eventPublisher.publish(seckillOrderEvent);
         }
@@ -78,4 +77,12 @@ public class SeckillOrderDomainServiceImpl implements SeckillOrderDomainService
         }
         return seckillOrderRepository.getSeckillOrderByActivityId(activityId);
     }
+
+    @Override
+    public SeckillOrder getSeckillOrderById(Long id) {
+        if (id == null){
+            throw new SeckillException(HttpCode.PARAMS_INVALID);
+        }
+        return seckillOrderRepository.getSeckillOrderById(id);
+    }
 }
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.distribute;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 分布式缓存批量命令，命令在同一次网络往返中执行，结果按添加顺序返回
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public interface DistributedCacheBatch {
+
+    /**
+     * 保存数据，过期时间单位为秒，小于等于0时不过期
+     */
+    DistributedCacheBatch put(String key, Object value, long expireTime);
+
+    /**
+     * 保存二进制数据，过期时间单位为秒，小于等于0时不过期
+     */
+    DistributedCacheBatch putBytes(String key, byte[] value, long expireTime);
+
+    /**
+     * 读取数据，结果使用值序列化器反序列化
+     */
+    DistributedCacheBatch get(String key);
+
+    /**
+     * 读取二进制数据，结果为原始字节数组
+     */
+    DistributedCacheBatch getBytes(String key);
+
+    DistributedCacheBatch delete(String key);
+
+    DistributedCacheBatch increment(String key, long delta);
+
+    DistributedCacheBatch decrement(String key, long delta);
+}
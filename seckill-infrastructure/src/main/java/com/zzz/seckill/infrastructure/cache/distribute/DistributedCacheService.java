@@ -15,8 +15,11 @@
  */
 package com.zzz.seckill.infrastructure.cache.distribute;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * @author binghe(微信 : hacker_binghe)
@@ -43,10 +46,40 @@ public interface DistributedCacheService {
 
     <T> List<T> getList(String key, Class<T> targetClass);
 
+    /**
+     * 保存二进制数据，过期时间单位为秒
+     */
+    void putBytes(String key, byte[] value, long expireTime);
+
+    /**
+     * 获取二进制数据
+     */
+    byte[] getBytes(String key);
+
     Boolean delete(String key);
 
     Boolean hasKey(String key);
 
+    /**
+     * 批量获取数据，结果与key的顺序一致，不存在的key对应null
+     */
+    List<Object> multiGet(Collection<String> keys);
+
+    /**
+     * 批量保存数据，过期时间单位为秒
+     */
+    void multiPut(Map<String, ?> values, long expireTime);
+
+    /**
+     * 批量删除数据，返回删除的key数量
+     */
+    Long multiDelete(Collection<String> keys);
+
+    /**
+     * 使用管道批量执行命令，返回每个命令的结果
+     */
+    List<Object> executePipelined(Consumer<DistributedCacheBatch> batch);
+
     /**
      * 扣减内存中的数据
      */
@@ -67,12 +100,60 @@ public interface DistributedCacheService {
         return null;
     }
     /**
-     * 使用Lua脚本增加库存
+     * 使用Lua脚本扣减库存，同时检查并累加用户已购数量，超过限购数量时不扣减库存，limitExpireAt为限购key的过期时间戳
+     */
+    default Long decrementByLua(String key, String limitKey, Long userId, Integer quantity, Integer limitNum, long limitExpireAt){
+        return null;
+    }
+
+    /**
+     * 使用Lua脚本检查并累加用户已购数量，超过限购数量时返回-4，用于不经过扣减库存脚本的下单方式
+     */
+    default Long acquireLimitByLua(String limitKey, Long userId, Integer quantity, Integer limitNum, long limitExpireAt){
+        return null;
+    }
+
+    /**
+     * 使用Lua脚本归还用户已购数量
+     */
+    default Long releaseLimitByLua(String limitKey, Long userId, Integer quantity){
+        return null;
+    }
+
+    /**
+     * 使用Lua脚本原子扣减多个商品的库存，任意商品失败时不扣减，返回每个商品的执行结果
+     */
+    default List<Long> decrementBatchByLua(List<String> keys, List<Integer> quantities){
+        return null;
+    }
+    /**
+     * 使用Lua脚本增加库存，成功时返回增加后的库存
      */
     default Long incrementByLua(String key, Integer quantity){
         return null;
     }
 
+    /**
+     * 使用Lua脚本增加库存，同时归还用户已购数量，成功时返回增加后的库存
+     */
+    default Long incrementByLua(String key, String limitKey, Long userId, Integer quantity){
+        return null;
+    }
+
+    /**
+     * 使用Lua脚本认领下单令牌，返回-1表示令牌不存在，1表示认领成功，2表示令牌已经被相同的下单命令认领，-2表示令牌已经被其他下单命令认领
+     */
+    default Long claimOrderTokenByLua(String key, long expireTime, Long goodsId, Integer quantity){
+        return null;
+    }
+
+    /**
+     * 使用Lua脚本批量租借库存，返回实际租借到的库存数量
+     */
+    default Long leaseByLua(String key, Integer quantity){
+        return null;
+    }
+
     /**
      * 使用Lua脚本初始化库存
      */
@@ -84,4 +165,11 @@ public interface DistributedCacheService {
      * 检测结果Lua执行结果
      */
     default void checkResult(Long result){}
+
+    /**
+     * 检测指定key的Lua执行结果，库存已售罄时记录售罄标识
+     */
+    default void checkResult(String key, Long result){
+        this.checkResult(result);
+    }
 }
@@ -19,20 +19,30 @@ import com.alibaba.fastjson.JSON;
 import com.zzz.seckill.domain.code.HttpCode;
 import com.zzz.seckill.domain.constants.SeckillConstants;
 import com.zzz.seckill.domain.exception.SeckillException;
+import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheBatch;
 import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
+import com.zzz.seckill.infrastructure.cache.distribute.redis.script.RedisScriptRegistry;
+import com.zzz.seckill.infrastructure.cache.soldout.SoldOutCacheService;
 import com.zzz.seckill.infrastructure.utils.serializer.ProtoStuffSerializerUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * @author binghe(微信 : hacker_binghe)
@@ -47,26 +57,13 @@ public class RedisCacheService implements DistributedCacheService {
 
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
-    private static final DefaultRedisScript<Long> DECREASE_STOCK_SCRIPT;
-    private static final DefaultRedisScript<Long> INCREASE_STOCK_SCRIPT;
-    private static final DefaultRedisScript<Long> INIT_STOCK_SCRIPT;
-
-    static {
-        //扣减库存
-        DECREASE_STOCK_SCRIPT = new DefaultRedisScript<>();
-        DECREASE_STOCK_SCRIPT.setLocation(new ClassPathResource("lua/decrement_goods_stock.lua"));
-        DECREASE_STOCK_SCRIPT.setResultType(Long.class);
-
-        //增加库存
-        INCREASE_STOCK_SCRIPT = new DefaultRedisScript<>();
-        INCREASE_STOCK_SCRIPT.setLocation(new ClassPathResource("lua/increment_goods_stock.lua"));
-        INCREASE_STOCK_SCRIPT.setResultType(Long.class);
+    @Autowired
+    private RedisTemplate<String, byte[]> byteRedisTemplate;
+    @Autowired
+    private SoldOutCacheService soldOutCacheService;
+    @Autowired
+    private RedisScriptRegistry redisScriptRegistry;
 
-        //初始化库存
-        INIT_STOCK_SCRIPT = new DefaultRedisScript<>();
-        INIT_STOCK_SCRIPT.setLocation(new ClassPathResource("lua/init_goods_stock.lua"));
-        INIT_STOCK_SCRIPT.setResultType(Long.class);
-    }
     @Override
     public void put(String key, String value) {
         if (StringUtils.isEmpty(key) || value == null) {
@@ -99,6 +96,19 @@ public class RedisCacheService implements DistributedCacheService {
         redisTemplate.opsForValue().set(key, value, expireTime, TimeUnit.SECONDS);
     }
 
+    @Override
+    public void putBytes(String key, byte[] value, long expireTime) {
+        if (StringUtils.isEmpty(key) || value == null) {
+            return;
+        }
+        byteRedisTemplate.opsForValue().set(key, value, expireTime, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public byte[] getBytes(String key) {
+        return byteRedisTemplate.opsForValue().get(key);
+    }
+
     @Override
     public <T> T getObject(String key, Class<T> targetClass) {
         Object result = redisTemplate.opsForValue().get(key);
@@ -149,6 +159,58 @@ public class RedisCacheService implements DistributedCacheService {
         return redisTemplate.hasKey(key);
     }
 
+    @Override
+    public List<Object> multiGet(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return redisTemplate.opsForValue().multiGet(keys);
+    }
+
+    @Override
+    public void multiPut(Map<String, ?> values, long expireTime) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        //MSET不支持过期时间，使用管道批量执行SET EX
+        this.executePipelined((batch) -> values.forEach((key, value) -> {
+            if (!StringUtils.isEmpty(key) && value != null) {
+                batch.put(key, value, expireTime);
+            }
+        }));
+    }
+
+    @Override
+    public Long multiDelete(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0L;
+        }
+        return redisTemplate.delete(keys);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object> executePipelined(Consumer<DistributedCacheBatch> batch) {
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        RedisCacheBatch[] cacheBatch = new RedisCacheBatch[1];
+        //管道结果统一按原始字节返回，避免二进制数据被valueSerializer反序列化失败
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            cacheBatch[0] = new RedisCacheBatch(connection, keySerializer, valueSerializer);
+            batch.accept(cacheBatch[0]);
+            return null;
+        }, RedisSerializer.byteArray());
+        //只有get命令的结果使用valueSerializer反序列化，getBytes命令保留原始字节
+        List<Object> values = new ArrayList<>(results);
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (cacheBatch[0] != null && cacheBatch[0].isDeserializeResult(i) && value instanceof byte[]) {
+                values.set(i, valueSerializer.deserialize((byte[]) value));
+            }
+        }
+        return values;
+    }
+
     public RedisTemplate<String, Object> getRedisTemplate() {
         return redisTemplate;
     }
@@ -164,17 +226,74 @@ public class RedisCacheService implements DistributedCacheService {
     }
     @Override
     public Long decrementByLua(String key, Integer quantity) {
-        return redisTemplate.execute(DECREASE_STOCK_SCRIPT, Collections.singletonList(key), quantity);
+        return redisScriptRegistry.execute(RedisScriptRegistry.DECREMENT_GOODS_STOCK, Collections.singletonList(key), quantity);
+    }
+
+    @Override
+    public Long decrementByLua(String key, String limitKey, Long userId, Integer quantity, Integer limitNum, long limitExpireAt) {
+        return redisScriptRegistry.execute(RedisScriptRegistry.DECREMENT_GOODS_STOCK, Arrays.asList(key, limitKey), quantity, userId, limitNum, limitExpireAt);
+    }
+
+    @Override
+    public Long acquireLimitByLua(String limitKey, Long userId, Integer quantity, Integer limitNum, long limitExpireAt) {
+        return redisScriptRegistry.execute(RedisScriptRegistry.ACQUIRE_GOODS_LIMIT, Collections.singletonList(limitKey), userId, quantity, limitNum, limitExpireAt);
+    }
+
+    @Override
+    public Long releaseLimitByLua(String limitKey, Long userId, Integer quantity) {
+        return redisScriptRegistry.execute(RedisScriptRegistry.RELEASE_GOODS_LIMIT, Collections.singletonList(limitKey), userId, quantity);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> decrementBatchByLua(List<String> keys, List<Integer> quantities) {
+        if (keys == null || quantities == null || keys.size() != quantities.size()) {
+            throw new SeckillException(HttpCode.PARAMS_INVALID);
+        }
+        return redisScriptRegistry.execute(RedisScriptRegistry.DECREMENT_GOODS_STOCK_BATCH, List.class, keys, quantities.toArray());
     }
 
     @Override
     public Long incrementByLua(String key, Integer quantity) {
-        return redisTemplate.execute(INCREASE_STOCK_SCRIPT, Collections.singletonList(key), quantity);
+        Long result = redisScriptRegistry.execute(RedisScriptRegistry.INCREMENT_GOODS_STOCK, Collections.singletonList(key), quantity);
+        this.clearSoldOutIfRestocked(key, result, quantity);
+        return result;
+    }
+
+    @Override
+    public Long incrementByLua(String key, String limitKey, Long userId, Integer quantity) {
+        Long result = redisScriptRegistry.execute(RedisScriptRegistry.INCREMENT_GOODS_STOCK, Arrays.asList(key, limitKey), quantity, userId);
+        this.clearSoldOutIfRestocked(key, result, quantity);
+        return result;
+    }
+
+    /**
+     * 库存从0恢复为正数时才清除售罄标识，库存充足时的补偿不广播
+     */
+    private void clearSoldOutIfRestocked(String key, Long result, Integer quantity){
+        if (result != null && result > 0 && result - quantity <= 0){
+            soldOutCacheService.clearSoldOut(key);
+        }
+    }
+
+    @Override
+    public Long claimOrderTokenByLua(String key, long expireTime, Long goodsId, Integer quantity) {
+        return redisScriptRegistry.execute(RedisScriptRegistry.CLAIM_ORDER_TOKEN, Collections.singletonList(key), expireTime, goodsId, quantity);
+    }
+
+    @Override
+    public Long leaseByLua(String key, Integer quantity) {
+        return redisScriptRegistry.execute(RedisScriptRegistry.LEASE_GOODS_STOCK, Collections.singletonList(key), quantity);
     }
 
     @Override
     public Long initByLua(String key, Integer quantity) {
-        return redisTemplate.execute(INIT_STOCK_SCRIPT, Collections.singletonList(key), quantity);
+        Long result = redisScriptRegistry.execute(RedisScriptRegistry.INIT_GOODS_STOCK, Collections.singletonList(key), quantity);
+        //重新初始化库存后清除售罄标识
+        if (result != null && result > 0){
+            soldOutCacheService.clearSoldOut(key);
+        }
+        return result;
     }
 
     @Override
@@ -185,8 +304,97 @@ public class RedisCacheService implements DistributedCacheService {
         if (result == SeckillConstants.LUA_RESULT_GOODS_STOCK_PARAMS_LT_ZERO){
             throw new SeckillException(HttpCode.PARAMS_INVALID);
         }
-        if (result == SeckillConstants.LUA_RESULT_GOODS_STOCK_LT_ZERO){
+        if (result == SeckillConstants.LUA_RESULT_GOODS_STOCK_LT_ZERO || result == SeckillConstants.LUA_RESULT_GOODS_SOLD_OUT){
             throw new SeckillException(HttpCode.STOCK_LT_ZERO);
         }
+        if (result == SeckillConstants.LUA_RESULT_GOODS_LIMIT_REACHED){
+            throw new SeckillException(HttpCode.GOODS_LIMIT_REACHED);
+        }
+    }
+
+    @Override
+    public void checkResult(String key, Long result) {
+        //只有脚本在扣减时读取到库存为0才标记售罄，不再单独查询库存
+        if (result != null && result == SeckillConstants.LUA_RESULT_GOODS_SOLD_OUT){
+            soldOutCacheService.markSoldOut(key);
+        }
+        this.checkResult(result);
+    }
+
+    /**
+     * 基于管道连接的批量命令，命令在executePipelined结束时一次性发送
+     */
+    private static class RedisCacheBatch implements DistributedCacheBatch {
+        private final RedisConnection connection;
+        private final RedisSerializer<String> keySerializer;
+        private final RedisSerializer<Object> valueSerializer;
+        //按添加顺序记录每个命令的结果是否需要反序列化
+        private final List<Boolean> deserializeResults = new ArrayList<>();
+
+        RedisCacheBatch(RedisConnection connection, RedisSerializer<String> keySerializer, RedisSerializer<Object> valueSerializer) {
+            this.connection = connection;
+            this.keySerializer = keySerializer;
+            this.valueSerializer = valueSerializer;
+        }
+
+        @Override
+        public DistributedCacheBatch put(String key, Object value, long expireTime) {
+            connection.stringCommands().set(keySerializer.serialize(key), valueSerializer.serialize(value), this.getExpiration(expireTime), RedisStringCommands.SetOption.upsert());
+            deserializeResults.add(false);
+            return this;
+        }
+
+        @Override
+        public DistributedCacheBatch putBytes(String key, byte[] value, long expireTime) {
+            connection.stringCommands().set(keySerializer.serialize(key), value, this.getExpiration(expireTime), RedisStringCommands.SetOption.upsert());
+            deserializeResults.add(false);
+            return this;
+        }
+
+        @Override
+        public DistributedCacheBatch get(String key) {
+            connection.stringCommands().get(keySerializer.serialize(key));
+            deserializeResults.add(true);
+            return this;
+        }
+
+        @Override
+        public DistributedCacheBatch getBytes(String key) {
+            connection.stringCommands().get(keySerializer.serialize(key));
+            deserializeResults.add(false);
+            return this;
+        }
+
+        @Override
+        public DistributedCacheBatch delete(String key) {
+            connection.keyCommands().del(keySerializer.serialize(key));
+            deserializeResults.add(false);
+            return this;
+        }
+
+        @Override
+        public DistributedCacheBatch increment(String key, long delta) {
+            connection.stringCommands().incrBy(keySerializer.serialize(key), delta);
+            deserializeResults.add(false);
+            return this;
+        }
+
+        @Override
+        public DistributedCacheBatch decrement(String key, long delta) {
+            connection.stringCommands().decrBy(keySerializer.serialize(key), delta);
+            deserializeResults.add(false);
+            return this;
+        }
+
+        boolean isDeserializeResult(int index) {
+            return index < deserializeResults.size() && deserializeResults.get(index);
+        }
+
+        /**
+         * Redis不接受EX 0，过期时间小于等于0时不设置过期
+         */
+        private Expiration getExpiration(long expireTime) {
+            return expireTime > 0 ? Expiration.seconds(expireTime) : Expiration.persistent();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.distribute.redis.script;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description Lua脚本注册中心，启动时加载lua目录下的全部脚本并SCRIPT LOAD到Redis，执行时使用EVALSHA
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Component
+public class RedisScriptRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(RedisScriptRegistry.class);
+    private static final String SCRIPT_LOCATION = "classpath*:lua/*.lua";
+    private static final String SCRIPT_SUFFIX = ".lua";
+
+    /**
+     * 脚本名称即lua目录下的文件名
+     */
+    public static final String ACQUIRE_GOODS_LIMIT = "acquire_goods_limit";
+    public static final String CLAIM_ORDER_TOKEN = "claim_order_token";
+    public static final String DECREMENT_GOODS_STOCK = "decrement_goods_stock";
+    public static final String DECREMENT_GOODS_STOCK_BATCH = "decrement_goods_stock_batch";
+    public static final String INCREMENT_GOODS_STOCK = "increment_goods_stock";
+    public static final String INIT_GOODS_STOCK = "init_goods_stock";
+    public static final String LEASE_GOODS_STOCK = "lease_goods_stock";
+    public static final String RELEASE_GOODS_LIMIT = "release_goods_limit";
+    public static final String RENEW_WORKER_ID = "renew_worker_id";
+    public static final String RELEASE_WORKER_ID = "release_worker_id";
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 脚本名称到脚本内容
+     */
+    private final Map<String, String> scriptSources = new ConcurrentHashMap<>();
+    /**
+     * 脚本名称和结果类型到脚本，脚本内容固定，SHA1只计算一次
+     * DefaultRedisScript.setLocation每次执行都会检查脚本文件是否修改，这里统一使用静态脚本内容
+     */
+    private final Map<String, RedisScript<?>> scripts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(SCRIPT_LOCATION);
+        for (Resource resource : resources){
+            String filename = resource.getFilename();
+            if (filename == null || !filename.endsWith(SCRIPT_SUFFIX)){
+                continue;
+            }
+            String name = filename.substring(0, filename.length() - SCRIPT_SUFFIX.length());
+            scriptSources.put(name, StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8));
+        }
+        this.preload();
+    }
+
+    /**
+     * 将全部脚本加载到Redis的脚本缓存，失败时不影响启动，执行时遇到NOSCRIPT会使用EVAL重新加载
+     */
+    private void preload(){
+        try {
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                for (Map.Entry<String, String> entry : scriptSources.entrySet()){
+                    String sha1 = connection.scriptingCommands().scriptLoad(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                    logger.info("RedisScriptRegistry|加载Lua脚本|{}|{}", entry.getKey(), sha1);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("RedisScriptRegistry|预加载Lua脚本失败|{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 执行返回整数的脚本
+     */
+    public Long execute(String name, List<String> keys, Object... args){
+        return this.execute(name, Long.class, keys, args);
+    }
+
+    /**
+     * 执行脚本，RedisTemplate先使用EVALSHA，Redis返回NOSCRIPT时使用EVAL执行并缓存脚本
+     */
+    public <T> T execute(String name, Class<T> resultType, List<String> keys, Object... args){
+        return redisTemplate.execute(this.getScript(name, resultType), keys, args);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> RedisScript<T> getScript(String name, Class<T> resultType){
+        return (RedisScript<T>) scripts.computeIfAbsent(name + "#" + resultType.getName(), (key) -> {
+            String source = scriptSources.get(name);
+            if (source == null){
+                throw new IllegalArgumentException("lua script not found: " + name);
+            }
+            return RedisScript.of(source, resultType);
+        });
+    }
+}
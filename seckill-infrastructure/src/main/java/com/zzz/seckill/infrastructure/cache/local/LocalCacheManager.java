@@ -0,0 +1,46 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.local;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 本地缓存管理器，每个缓存区域对应一个独立的本地缓存，容量和过期时间可以单独配置
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public interface LocalCacheManager {
+
+    /**
+     * 获取指定区域的本地缓存，不存在时按照区域配置创建
+     */
+    <K, V> LocalCacheService<K, V> getCache(String region);
+
+    /**
+     * 获取指定区域的本地缓存，区域配置了refresh-after-write时使用loader异步刷新，只有在第一次创建缓存时生效
+     */
+    default <K, V> LocalCacheService<K, V> getCache(String region, Function<K, V> loader){
+        return this.getCache(region);
+    }
+
+    /**
+     * 获取所有已经创建的本地缓存，key为区域名称
+     */
+    Map<String, LocalCacheService<?, ?>> getCaches();
+}
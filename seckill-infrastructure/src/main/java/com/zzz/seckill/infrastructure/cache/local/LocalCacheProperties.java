@@ -0,0 +1,87 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.local;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 本地缓存区域配置，例如local.cache.regions.goods.maximum-size=10000
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Component
+@ConfigurationProperties(prefix = "local.cache")
+public class LocalCacheProperties {
+    //各个缓存区域的配置
+    private Map<String, Region> regions = new HashMap<>();
+
+    public Map<String, Region> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(Map<String, Region> regions) {
+        this.regions = regions;
+    }
+
+    /**
+     * 获取缓存区域的配置，未配置时使用默认配置
+     */
+    public Region getRegion(String region) {
+        return regions.getOrDefault(region, new Region());
+    }
+
+    /**
+     * 缓存区域配置
+     */
+    public static class Region {
+        //最大条目数，小于或者等于0时不限制
+        private long maximumSize = 10000;
+        //写入后过期时间，单位毫秒
+        private long expireAfterWrite = 5000;
+        //写入后刷新时间，单位毫秒，只有Caffeine并且获取缓存时传入了加载方法时生效，刷新时返回旧值并异步加载
+        private long refreshAfterWrite = 0;
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(long expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public long getRefreshAfterWrite() {
+            return refreshAfterWrite;
+        }
+
+        public void setRefreshAfterWrite(long refreshAfterWrite) {
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+    }
+}
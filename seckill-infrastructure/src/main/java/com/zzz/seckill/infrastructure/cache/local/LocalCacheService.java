@@ -27,4 +27,23 @@ public interface LocalCacheService<K, V> {
     void put(K key, V value);
 
     V getIfPresent(K key);
+
+    /**
+     * 删除缓存
+     */
+    default void invalidate(K key){}
+
+    /**
+     * 缓存条目数
+     */
+    default long size(){
+        return 0;
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    default LocalCacheStats stats(){
+        return new LocalCacheStats(0, 0, 0, this.size());
+    }
 }
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.local.caffeine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description Caffeine本地缓存工厂
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class CaffeineLocalCacheFactory {
+
+    /**
+     * 创建本地缓存
+     * @param maximumSize 最大条目数，小于或者等于0时不限制
+     * @param expireAfterWrite 写入后过期时间，单位毫秒，小于或者等于0时不过期
+     * @param refreshAfterWrite 写入后刷新时间，单位毫秒，只有传入loader时生效
+     * @param loader 刷新时加载数据，可以为null
+     */
+    public static <K, V> Cache<K, V> getLocalCache(long maximumSize, long expireAfterWrite, long refreshAfterWrite, Function<K, V> loader){
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder().recordStats();
+        if (maximumSize > 0){
+            caffeine.maximumSize(maximumSize);
+        }
+        if (expireAfterWrite > 0){
+            caffeine.expireAfterWrite(expireAfterWrite, TimeUnit.MILLISECONDS);
+        }
+        if (loader == null){
+            return caffeine.build();
+        }
+        if (refreshAfterWrite > 0){
+            caffeine.refreshAfterWrite(refreshAfterWrite, TimeUnit.MILLISECONDS);
+        }
+        return caffeine.build(loader::apply);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.local.caffeine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheStats;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于Caffeine实现的本地缓存，支持容量上限和命中率统计
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class CaffeineLocalCacheService<K, V> implements LocalCacheService<K, V> {
+    //本地缓存，基于Caffeine实现
+    private final Cache<K, V> cache;
+
+    public CaffeineLocalCacheService(Cache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public LocalCacheStats stats() {
+        CacheStats cacheStats = cache.stats();
+        return new LocalCacheStats(cacheStats.hitCount(), cacheStats.missCount(), cacheStats.evictionCount(), cache.estimatedSize());
+    }
+}
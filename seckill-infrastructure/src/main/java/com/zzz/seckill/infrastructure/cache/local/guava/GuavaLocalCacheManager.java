@@ -0,0 +1,58 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.local.guava;
+
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheManager;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheProperties;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于Guava实现的本地缓存管理器
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "local.cache.type", havingValue = "guava")
+public class GuavaLocalCacheManager implements LocalCacheManager {
+
+    private final Map<String, LocalCacheService<?, ?>> cacheMap = new ConcurrentHashMap<>();
+
+    @Autowired
+    private LocalCacheProperties localCacheProperties;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> LocalCacheService<K, V> getCache(String region) {
+        return (LocalCacheService<K, V>) cacheMap.computeIfAbsent(region, (key) -> {
+            LocalCacheProperties.Region regionProperties = localCacheProperties.getRegion(key);
+            return new GuavaLocalCacheService<>(LocalCacheFactory.getLocalCache(regionProperties.getMaximumSize(), regionProperties.getExpireAfterWrite()));
+        });
+    }
+
+    @Override
+    public Map<String, LocalCacheService<?, ?>> getCaches() {
+        return Collections.unmodifiableMap(cacheMap);
+    }
+}
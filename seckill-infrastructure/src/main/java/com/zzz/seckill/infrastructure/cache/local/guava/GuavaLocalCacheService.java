@@ -16,9 +16,9 @@
 package com.zzz.seckill.infrastructure.cache.local.guava;
 
 import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
 import com.zzz.seckill.infrastructure.cache.local.LocalCacheService;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.stereotype.Service;
+import com.zzz.seckill.infrastructure.cache.local.LocalCacheStats;
 
 /**
  * @author binghe(微信 : hacker_binghe)
@@ -27,11 +27,13 @@ import org.springframework.stereotype.Service;
  * @github https://github.com/binghe001
  * @copyright 公众号: 冰河技术
  */
-@Service
-@ConditionalOnProperty(name = "local.cache.type", havingValue = "guava")
 public class GuavaLocalCacheService<K, V> implements LocalCacheService<K, V> {
     //本地缓存，基于Guava实现
-    private final Cache<K, V> cache = LocalCacheFactory.getLocalCache();
+    private final Cache<K, V> cache;
+
+    public GuavaLocalCacheService(Cache<K, V> cache) {
+        this.cache = cache;
+    }
 
     @Override
     public void put(K key, V value) {
@@ -42,4 +44,20 @@ public class GuavaLocalCacheService<K, V> implements LocalCacheService<K, V> {
     public V getIfPresent(K key) {
         return cache.getIfPresent(key);
     }
+
+    @Override
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public long size() {
+        return cache.size();
+    }
+
+    @Override
+    public LocalCacheStats stats() {
+        CacheStats cacheStats = cache.stats();
+        return new LocalCacheStats(cacheStats.hitCount(), cacheStats.missCount(), cacheStats.evictionCount(), cache.size());
+    }
 }
@@ -29,6 +29,22 @@ import java.util.concurrent.TimeUnit;
  */
 public class LocalCacheFactory {
     public static <K, V> Cache<K, V> getLocalCache(){
-        return CacheBuilder.newBuilder().initialCapacity(15).concurrencyLevel(5).expireAfterWrite(5, TimeUnit.SECONDS).build();
+        return CacheBuilder.newBuilder().initialCapacity(15).concurrencyLevel(5).expireAfterWrite(5, TimeUnit.SECONDS).recordStats().build();
+    }
+
+    /**
+     * 创建本地缓存
+     * @param maximumSize 最大条目数，小于或者等于0时不限制
+     * @param expireAfterWrite 写入后过期时间，单位毫秒，小于或者等于0时不过期
+     */
+    public static <K, V> Cache<K, V> getLocalCache(long maximumSize, long expireAfterWrite){
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().initialCapacity(15).concurrencyLevel(Runtime.getRuntime().availableProcessors()).recordStats();
+        if (maximumSize > 0){
+            cacheBuilder.maximumSize(maximumSize);
+        }
+        if (expireAfterWrite > 0){
+            cacheBuilder.expireAfterWrite(expireAfterWrite, TimeUnit.MILLISECONDS);
+        }
+        return cacheBuilder.build();
     }
 }
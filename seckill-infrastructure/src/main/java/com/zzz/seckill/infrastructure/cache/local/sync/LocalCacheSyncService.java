@@ -0,0 +1,168 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.local.sync;
+
+import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.infrastructure.pubsub.PubSubService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 本地缓存同步，分布式缓存更新后广播缓存区域、key和版本号，各个节点收到后替换或者删除本地缓存
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+public class LocalCacheSyncService {
+    private static final Logger logger = LoggerFactory.getLogger(LocalCacheSyncService.class);
+    private static final String THREAD_NAME = "seckill-local-cache-sync";
+    /**
+     * 消息分隔符，消息格式为：缓存区域:key:版本号
+     */
+    private static final String SEPARATOR = ":";
+    /**
+     * 待处理的缓存区域和key的最大数量，同一个key的消息会合并
+     */
+    private static final int MAX_PENDING_MESSAGES = 10000;
+
+    //各个缓存区域的监听器，参数为key和版本号
+    private final Map<String, BiConsumer<String, Long>> listenerMap = new ConcurrentHashMap<>();
+    //待处理的消息，按缓存区域和key合并，只保留最新的消息，积压时不会丢失最新的版本
+    private final Map<String, SyncMessage> pendingMessageMap = new ConcurrentHashMap<>();
+    //待处理的key超过上限后丢弃的消息数量
+    private final AtomicLong droppedMessages = new AtomicLong(0);
+    //在独立的线程中处理消息，不阻塞消息的分发线程，也避免在更新缓存的线程中重入
+    private ExecutorService syncExecutor;
+
+    @Autowired
+    private PubSubService pubSubService;
+
+    @PostConstruct
+    public void init(){
+        syncExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(MAX_PENDING_MESSAGES), runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        pubSubService.subscribe(SeckillConstants.CHANNEL_LOCAL_CACHE_SYNC, this::onMessage);
+    }
+
+    /**
+     * 注册缓存区域的监听器
+     */
+    public void register(String region, BiConsumer<String, Long> listener){
+        listenerMap.put(region, listener);
+    }
+
+    /**
+     * 待处理的key超过上限后丢弃的消息数量
+     */
+    public long getDroppedMessages(){
+        return droppedMessages.get();
+    }
+
+    /**
+     * 广播缓存已经更新，版本号为空时各个节点直接删除本地缓存
+     */
+    public void publish(String region, Object key, Long version){
+        String message = region.concat(SEPARATOR).concat(String.valueOf(key)).concat(SEPARATOR).concat(version == null ? "" : String.valueOf(version));
+        try {
+            pubSubService.publish(SeckillConstants.CHANNEL_LOCAL_CACHE_SYNC, message);
+        } catch (Exception e) {
+            logger.error("LocalCacheSync|广播本地缓存同步消息异常|{}|{}", message, e.getMessage());
+        }
+    }
+
+    private void onMessage(String message){
+        int regionIndex = message.indexOf(SEPARATOR);
+        int versionIndex = message.lastIndexOf(SEPARATOR);
+        if (regionIndex <= 0 || versionIndex <= regionIndex){
+            logger.error("LocalCacheSync|本地缓存同步消息格式错误|{}", message);
+            return;
+        }
+        String region = message.substring(0, regionIndex);
+        BiConsumer<String, Long> listener = listenerMap.get(region);
+        if (listener == null){
+            return;
+        }
+        String key = message.substring(regionIndex + 1, versionIndex);
+        String versionStr = message.substring(versionIndex + 1);
+        Long version = versionStr.isEmpty() ? null : Long.valueOf(versionStr);
+        String pendingKey = region.concat(SEPARATOR).concat(key);
+        //同一个key已有待处理的消息时只替换为最新的消息，由已提交的任务处理
+        if (pendingMessageMap.put(pendingKey, new SyncMessage(listener, key, version, message)) != null){
+            return;
+        }
+        try {
+            syncExecutor.execute(() -> this.sync(pendingKey));
+        } catch (RejectedExecutionException e) {
+            pendingMessageMap.remove(pendingKey);
+            logger.error("LocalCacheSync|待处理的本地缓存同步消息过多，丢弃消息|{}|{}", message, droppedMessages.incrementAndGet());
+        }
+    }
+
+    private void sync(String pendingKey){
+        SyncMessage syncMessage = pendingMessageMap.remove(pendingKey);
+        if (syncMessage == null){
+            return;
+        }
+        try {
+            syncMessage.listener.accept(syncMessage.key, syncMessage.version);
+        } catch (Exception e) {
+            logger.error("LocalCacheSync|同步本地缓存异常|{}|{}", syncMessage.message, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void destroy(){
+        if (syncExecutor != null){
+            syncExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 待处理的同步消息
+     */
+    private static class SyncMessage {
+        private final BiConsumer<String, Long> listener;
+        private final String key;
+        private final Long version;
+        private final String message;
+
+        private SyncMessage(BiConsumer<String, Long> listener, String key, Long version, String message) {
+            this.listener = listener;
+            this.key = key;
+            this.version = version;
+            this.message = message;
+        }
+    }
+}
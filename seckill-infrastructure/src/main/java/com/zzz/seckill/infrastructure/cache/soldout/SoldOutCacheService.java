@@ -0,0 +1,46 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.soldout;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 商品售罄标识服务，商品售罄后直接在本地拦截请求
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public interface SoldOutCacheService {
+
+    /**
+     * 是否已售罄，key为商品库存的key
+     */
+    boolean isSoldOut(String key);
+
+    /**
+     * 标记为已售罄，并广播到其他节点
+     */
+    void markSoldOut(String key);
+
+    /**
+     * 只在当前节点标记为已售罄，不广播到其他节点
+     */
+    void markLocalSoldOut(String key);
+
+    /**
+     * 清除售罄标识，并广播到其他节点
+     */
+    void clearSoldOut(String key);
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.cache.soldout.local;
+
+import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.infrastructure.cache.soldout.SoldOutCacheService;
+import com.zzz.seckill.infrastructure.pubsub.PubSubService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 本地售罄标识，通过发布订阅在节点之间同步，标识到期后自动失效，由下一次扣减库存重新判断
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+public class LocalSoldOutCacheService implements SoldOutCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(LocalSoldOutCacheService.class);
+    /**
+     * 标记售罄的消息前缀
+     */
+    private static final String MARK_PREFIX = "mark:";
+    /**
+     * 清除售罄的消息前缀
+     */
+    private static final String CLEAR_PREFIX = "clear:";
+
+    /**
+     * 商品库存的key到售罄标识的过期时间戳
+     */
+    private final Map<String, Long> soldOutKeys = new ConcurrentHashMap<>();
+
+    /**
+     * 售罄标识的有效期，单位毫秒，标记和清除之间的竞争或者广播乱序最多影响一个有效期
+     */
+    @Value("${goods.sold.out.expire:2000}")
+    private long soldOutExpire;
+
+    @Autowired
+    private PubSubService pubSubService;
+
+    @PostConstruct
+    public void init(){
+        pubSubService.subscribe(SeckillConstants.CHANNEL_GOODS_SOLD_OUT, this::onMessage);
+    }
+
+    @Override
+    public boolean isSoldOut(String key) {
+        Long expireTime = soldOutKeys.get(key);
+        if (expireTime == null){
+            return false;
+        }
+        if (expireTime > System.currentTimeMillis()){
+            return true;
+        }
+        soldOutKeys.remove(key, expireTime);
+        return false;
+    }
+
+    @Override
+    public void markSoldOut(String key) {
+        //已经标记过并且未过期的不再重复广播
+        if (this.mark(key)){
+            logger.info("soldOut|标记商品售罄|{}", key);
+            pubSubService.publish(SeckillConstants.CHANNEL_GOODS_SOLD_OUT, MARK_PREFIX.concat(key));
+        }
+    }
+
+    @Override
+    public void markLocalSoldOut(String key) {
+        this.mark(key);
+    }
+
+    @Override
+    public void clearSoldOut(String key) {
+        //其他节点可能仍然持有售罄标识，始终广播
+        soldOutKeys.remove(key);
+        pubSubService.publish(SeckillConstants.CHANNEL_GOODS_SOLD_OUT, CLEAR_PREFIX.concat(key));
+    }
+
+    private void onMessage(String message){
+        if (message.startsWith(MARK_PREFIX)){
+            this.mark(message.substring(MARK_PREFIX.length()));
+        }else if (message.startsWith(CLEAR_PREFIX)){
+            soldOutKeys.remove(message.substring(CLEAR_PREFIX.length()));
+        }
+    }
+
+    /**
+     * 标记售罄并刷新有效期，之前未标记或者已过期时返回true
+     */
+    private boolean mark(String key){
+        long now = System.currentTimeMillis();
+        Long previous = soldOutKeys.put(key, now + soldOutExpire);
+        return previous == null || previous <= now;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.id;
+
+import com.zzz.seckill.infrastructure.id.segment.SegmentAllocator;
+import com.zzz.seckill.infrastructure.id.segment.SegmentIdGenerator;
+import com.zzz.seckill.infrastructure.id.worker.WorkerIdRegistry;
+import com.zzz.seckill.infrastructure.id.worker.WorkerIdSnowFlakeGenerator;
+import com.zzz.seckill.infrastructure.utils.id.IdGenerator;
+import com.zzz.seckill.infrastructure.utils.id.IdGeneratorFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description ID生成器配置，创建后注册到IdGeneratorFactory
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Configuration
+public class IdGeneratorConfig {
+    private static final String DEFAULT_BIZ_TAG = "seckill";
+
+    @Bean
+    @ConditionalOnProperty(name = "id.generator.type", havingValue = "snowflake")
+    public IdGenerator snowFlakeIdGenerator(WorkerIdRegistry workerIdRegistry){
+        IdGenerator idGenerator = new WorkerIdSnowFlakeGenerator(workerIdRegistry);
+        IdGeneratorFactory.setIdGenerator(idGenerator);
+        return idGenerator;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "id.generator.type", havingValue = "segment")
+    public IdGenerator segmentIdGenerator(ObjectProvider<SegmentAllocator> segmentAllocatorProvider, @Value("${id.segment.step:1000}") int step){
+        //号段必须持久化分配，只在本地内存中分配时节点重启后会重复发放已经使用过的ID
+        SegmentAllocator segmentAllocator = segmentAllocatorProvider.getIfAvailable();
+        if (segmentAllocator == null){
+            throw new IllegalStateException("segment id generator requires id.registry.type=redis");
+        }
+        IdGenerator idGenerator = new SegmentIdGenerator(segmentAllocator, DEFAULT_BIZ_TAG, step);
+        IdGeneratorFactory.setIdGenerator(idGenerator);
+        return idGenerator;
+    }
+}
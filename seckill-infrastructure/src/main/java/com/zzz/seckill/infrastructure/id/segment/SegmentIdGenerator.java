@@ -0,0 +1,143 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.id.segment;
+
+import com.zzz.seckill.infrastructure.utils.id.IdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 号段模式ID生成器，使用双号段缓冲，当前号段使用到一定比例时异步预取下一个号段，生成ID时不依赖时钟和远程调用
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SegmentIdGenerator implements IdGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentIdGenerator.class);
+    private static final String THREAD_NAME = "segment.id.loader";
+    /**
+     * 当前号段使用超过此比例时预取下一个号段
+     */
+    private static final double PREFETCH_RATIO = 0.2;
+
+    private final SegmentAllocator segmentAllocator;
+    private final String bizTag;
+    private final int step;
+    private final ExecutorService loaderExecutor;
+
+    private volatile Segment current;
+    private volatile CompletableFuture<Segment> nextFuture;
+
+    public SegmentIdGenerator(SegmentAllocator segmentAllocator, String bizTag, int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be greater than 0");
+        }
+        this.segmentAllocator = segmentAllocator;
+        this.bizTag = bizTag;
+        this.step = step;
+        this.loaderExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.current = this.loadSegment();
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            Segment segment = current;
+            long id = segment.value.getAndIncrement();
+            if (id <= segment.max) {
+                if (id >= segment.prefetchPoint) {
+                    this.prefetch(segment);
+                }
+                return id;
+            }
+            this.switchSegment(segment);
+        }
+    }
+
+    /**
+     * 每个号段只预取一次，和切换号段互斥，切换号段后仍在使用旧号段的线程不会再次预取，避免预取的号段被覆盖而浪费
+     */
+    private void prefetch(Segment segment) {
+        if (segment.prefetched) {
+            return;
+        }
+        synchronized (this) {
+            if (segment.prefetched || current != segment) {
+                return;
+            }
+            segment.prefetched = true;
+            nextFuture = CompletableFuture.supplyAsync(this::loadSegment, loaderExecutor);
+        }
+    }
+
+    /**
+     * 当前号段用完后切换到下一个号段，只有预取未完成时才会等待
+     */
+    private synchronized void switchSegment(Segment exhausted) {
+        //其他线程已经切换
+        if (current != exhausted) {
+            return;
+        }
+        Segment next = null;
+        CompletableFuture<Segment> future = nextFuture;
+        if (future != null) {
+            try {
+                next = future.join();
+            } catch (Exception e) {
+                logger.error("SegmentIdGenerator|预取号段失败|{}|{}", bizTag, e.getMessage());
+            }
+        }
+        if (next == null) {
+            next = this.loadSegment();
+        }
+        nextFuture = null;
+        current = next;
+    }
+
+    private Segment loadSegment() {
+        long max = segmentAllocator.allocate(bizTag, step);
+        return new Segment(max - step + 1, max, (long) (step * PREFETCH_RATIO));
+    }
+
+    /**
+     * 号段
+     */
+    private static class Segment {
+        private final AtomicLong value;
+        private final long max;
+        private final long prefetchPoint;
+        /**
+         * 是否已经开始预取下一个号段
+         */
+        private volatile boolean prefetched;
+
+        Segment(long min, long max, long prefetchOffset) {
+            this.value = new AtomicLong(min);
+            this.max = max;
+            this.prefetchPoint = min + prefetchOffset;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.id.segment.redis;
+
+import com.zzz.seckill.infrastructure.id.segment.SegmentAllocator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于Redis的号段分配器，使用INCRBY原子分配号段
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "id.registry.type", havingValue = "redis")
+public class RedisSegmentAllocator implements SegmentAllocator {
+    private static final String SEGMENT_KEY_PREFIX = "id:segment:";
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Override
+    public long allocate(String bizTag, int step) {
+        Long max = redisTemplate.opsForValue().increment(SEGMENT_KEY_PREFIX.concat(bizTag), step);
+        if (max == null){
+            throw new IllegalStateException("allocate segment failed");
+        }
+        return max;
+    }
+}
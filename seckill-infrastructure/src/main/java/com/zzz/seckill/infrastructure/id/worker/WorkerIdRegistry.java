@@ -0,0 +1,36 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.id.worker;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 机器id注册中心，为每个节点分配不重复的机器id
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public interface WorkerIdRegistry {
+
+    /**
+     * 机器id的最大值，对应雪花算法中数据中心id和机器id共10位
+     */
+    long MAX_WORKER_ID = 1023L;
+
+    /**
+     * 获取当前节点的机器id
+     */
+    long getWorkerId();
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.id.worker;
+
+import com.zzz.seckill.infrastructure.utils.id.IdGenerator;
+import com.zzz.seckill.infrastructure.utils.id.SnowFlake;
+import com.zzz.seckill.infrastructure.utils.id.SnowFlakeFactory;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于机器id注册中心的雪花算法，每次生成ID前确认机器id仍然有效，机器id变化后切换到新的雪花算法
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class WorkerIdSnowFlakeGenerator implements IdGenerator {
+
+    private final WorkerIdRegistry workerIdRegistry;
+    private volatile WorkerSnowFlake current;
+
+    public WorkerIdSnowFlakeGenerator(WorkerIdRegistry workerIdRegistry) {
+        this.workerIdRegistry = workerIdRegistry;
+        long workerId = workerIdRegistry.getWorkerId();
+        this.current = new WorkerSnowFlake(workerId, SnowFlakeFactory.getSnowFlakeByWorkerIdFromCache(workerId));
+    }
+
+    @Override
+    public long nextId() {
+        //机器id租约失效并且无法重新获取时，这里会抛出异常，不再生成ID
+        long workerId = workerIdRegistry.getWorkerId();
+        WorkerSnowFlake workerSnowFlake = current;
+        if (workerSnowFlake.workerId != workerId){
+            workerSnowFlake = new WorkerSnowFlake(workerId, SnowFlakeFactory.getSnowFlakeByWorkerIdFromCache(workerId));
+            current = workerSnowFlake;
+        }
+        return workerSnowFlake.snowFlake.nextId();
+    }
+
+    /**
+     * 机器id和对应的雪花算法，一起切换
+     */
+    private static class WorkerSnowFlake {
+        private final long workerId;
+        private final SnowFlake snowFlake;
+
+        WorkerSnowFlake(long workerId, SnowFlake snowFlake) {
+            this.workerId = workerId;
+            this.snowFlake = snowFlake;
+        }
+    }
+}
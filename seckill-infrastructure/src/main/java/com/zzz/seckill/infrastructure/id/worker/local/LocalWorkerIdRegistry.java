@@ -0,0 +1,47 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.id.worker.local;
+
+import com.zzz.seckill.infrastructure.id.worker.WorkerIdRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 本地机器id，直接使用配置的机器id，用于单机部署和测试
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "id.registry.type", havingValue = "local")
+public class LocalWorkerIdRegistry implements WorkerIdRegistry {
+
+    /**
+     * 默认值33对应数据中心id为1、机器id为1，与原来的默认雪花算法一致
+     */
+    @Value("${id.worker.id:33}")
+    private long workerId;
+
+    @Override
+    public long getWorkerId() {
+        if (workerId < 0 || workerId > MAX_WORKER_ID){
+            throw new IllegalArgumentException("workerId can't be greater than MAX_WORKER_ID or less than 0");
+        }
+        return workerId;
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.id.worker.redis;
+
+import com.zzz.seckill.infrastructure.cache.distribute.redis.script.RedisScriptRegistry;
+import com.zzz.seckill.infrastructure.id.worker.WorkerIdRegistry;
+import com.zzz.seckill.infrastructure.utils.id.SnowFlake;
+import com.zzz.seckill.infrastructure.utils.uuid.UUIDUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于Redis租约的机器id注册中心，节点启动时抢占空闲的机器id，并定时续约，租约失效后重新抢占机器id，抢占成功前不再返回机器id
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "id.registry.type", havingValue = "redis")
+public class RedisWorkerIdRegistry implements WorkerIdRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(RedisWorkerIdRegistry.class);
+    private static final String WORKER_ID_KEY_PREFIX = "id:worker:";
+    private static final String THREAD_NAME = "worker.id.renew";
+    /**
+     * 租约时间和续约间隔，单位毫秒
+     */
+    private static final long LEASE_MILLIS = 60000L;
+    private static final long RENEW_MILLIS = 20000L;
+    /**
+     * 节点之间的时钟偏差余量，单位毫秒
+     */
+    private static final long CLOCK_SKEW_MILLIS = 5000L;
+    /**
+     * 释放机器id时保留的时间，SnowFlake可能已经借用了未来的时间戳生成ID，机器id必须在这些时间戳过去之后才能被其他节点占用
+     */
+    private static final long RELEASE_HOLD_MILLIS = SnowFlake.MAX_BORROW_MILLIS + CLOCK_SKEW_MILLIS;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    @Autowired
+    private RedisScriptRegistry redisScriptRegistry;
+
+    /**
+     * 当前节点的标识，用于判断机器id是否由当前节点持有
+     */
+    private final String nodeToken = UUIDUtils.getUUID();
+    private volatile long workerId = -1;
+    /**
+     * 本地记录的租约到期时间，按照发送续约命令之前的时间计算，并预留借用时间和时钟偏差，
+     * 本地租约到期前借用的时间戳不会晚于Redis中的实际过期时间
+     */
+    private volatile long leaseExpireTime;
+    private ScheduledExecutorService renewScheduler;
+
+    @Override
+    public long getWorkerId() {
+        if (workerId < 0 || System.currentTimeMillis() >= leaseExpireTime){
+            synchronized (this){
+                if (workerId < 0){
+                    this.acquireWorkerId();
+                    this.scheduleRenew();
+                }else if (System.currentTimeMillis() >= leaseExpireTime){
+                    //租约到期时续约线程没有续约成功，机器id可能已被其他节点占用，重新获取成功前不能继续生成ID
+                    logger.error("RedisWorkerIdRegistry|机器id租约已过期|{}", workerId);
+                    this.renewLease();
+                }
+            }
+        }
+        return workerId;
+    }
+
+    /**
+     * 抢占空闲的机器id，抢占失败时抛出异常
+     */
+    private void acquireWorkerId(){
+        for (long id = 0; id <= MAX_WORKER_ID; id++){
+            long startTime = System.currentTimeMillis();
+            Boolean success = redisTemplate.opsForValue().setIfAbsent(this.getKey(id), nodeToken, LEASE_MILLIS, TimeUnit.MILLISECONDS);
+            if (Boolean.TRUE.equals(success)){
+                logger.info("RedisWorkerIdRegistry|获取机器id成功|{}", id);
+                workerId = id;
+                leaseExpireTime = this.getLeaseExpireTime(startTime);
+                return;
+            }
+        }
+        throw new IllegalStateException("no available workerId");
+    }
+
+    private void scheduleRenew(){
+        renewScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewScheduler.scheduleAtFixedRate(this::renew, RENEW_MILLIS, RENEW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void renew(){
+        try {
+            synchronized (this){
+                this.renewLease();
+            }
+        } catch (Exception e) {
+            logger.error("RedisWorkerIdRegistry|续约机器id异常|{}|{}", workerId, e.getMessage());
+        }
+    }
+
+    /**
+     * 续约当前机器id，租约已过期时重新抢占原来的机器id，原来的机器id已被其他节点占用时抢占新的机器id
+     */
+    private void renewLease(){
+        long startTime = System.currentTimeMillis();
+        String key = this.getKey(workerId);
+        Long result = redisScriptRegistry.execute(RedisScriptRegistry.RENEW_WORKER_ID, Collections.singletonList(key), nodeToken, LEASE_MILLIS);
+        if (result != null && result > 0){
+            leaseExpireTime = this.getLeaseExpireTime(startTime);
+            return;
+        }
+        Boolean success = redisTemplate.opsForValue().setIfAbsent(key, nodeToken, LEASE_MILLIS, TimeUnit.MILLISECONDS);
+        if (Boolean.TRUE.equals(success)){
+            leaseExpireTime = this.getLeaseExpireTime(startTime);
+            return;
+        }
+        logger.error("RedisWorkerIdRegistry|机器id已被其他节点占用，重新获取机器id|{}", workerId);
+        //抢占新的机器id之前先让本地租约失效，抢占失败时getWorkerId会继续重试
+        leaseExpireTime = 0;
+        this.acquireWorkerId();
+    }
+
+    @PreDestroy
+    public void destroy(){
+        if (renewScheduler == null){
+            return;
+        }
+        renewScheduler.shutdownNow();
+        try {
+            //不直接删除机器id，而是缩短租约，保证当前节点借用的时间戳过去之后其他节点才能占用该机器id
+            redisScriptRegistry.execute(RedisScriptRegistry.RELEASE_WORKER_ID, Collections.singletonList(this.getKey(workerId)), nodeToken, RELEASE_HOLD_MILLIS);
+        } catch (Exception e) {
+            logger.error("RedisWorkerIdRegistry|释放机器id异常|{}|{}", workerId, e.getMessage());
+        }
+    }
+
+    /**
+     * 本地租约比Redis中的租约提前结束，预留SnowFlake借用未来时间和节点之间时钟偏差的时间
+     */
+    private long getLeaseExpireTime(long startTime){
+        return startTime + LEASE_MILLIS - RELEASE_HOLD_MILLIS;
+    }
+
+    private String getKey(long id){
+        return WORKER_ID_KEY_PREFIX.concat(String.valueOf(id));
+    }
+}
@@ -36,6 +36,11 @@ public interface SeckillOrderMapper {
      */
     int saveSeckillOrder(SeckillOrder seckillOrder);
 
+    /**
+     * 批量保存订单
+     */
+    int saveSeckillOrderBatch(@Param("list") List<SeckillOrder> seckillOrderList);
+
     /**
      * 根据用户id获取订单列表
      */
@@ -45,4 +50,9 @@ public interface SeckillOrderMapper {
      * 根据活动id获取订单列表
      */
     List<SeckillOrder> getSeckillOrderByActivityId(@Param("activityId") Long activityId);
+
+    /**
+     * 根据订单id获取订单
+     */
+    SeckillOrder getSeckillOrderById(@Param("id") Long id);
 }
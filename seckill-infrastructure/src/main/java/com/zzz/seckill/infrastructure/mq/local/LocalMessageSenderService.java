@@ -0,0 +1,151 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.mq.local;
+
+import com.zzz.seckill.infrastructure.mq.MessageListener;
+import com.zzz.seckill.infrastructure.mq.MessageSenderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于本地有界队列的消息服务，在未部署消息中间件时代替RocketMQ使用
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "message.mq.type", havingValue = "local")
+public class LocalMessageSenderService implements MessageSenderService {
+    private final Logger logger = LoggerFactory.getLogger(LocalMessageSenderService.class);
+    private static final String THREAD_NAME_PREFIX = "local.message.consumer-";
+
+    @Value("${message.local.queue.capacity:10000}")
+    private int queueCapacity;
+    @Value("${message.local.consumer.threads:4}")
+    private int consumerThreads;
+    //延迟获取监听器，避免监听器与发送方之间的循环依赖
+    @Autowired
+    private ObjectProvider<MessageListener> messageListenerProvider;
+
+    private BlockingQueue<LocalMessage> queue;
+    private ExecutorService consumerExecutor;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init(){
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadIndex = new AtomicInteger();
+        consumerExecutor = Executors.newFixedThreadPool(consumerThreads, runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < consumerThreads; i++){
+            consumerExecutor.execute(this::consume);
+        }
+    }
+
+    @Override
+    public boolean send(String topic, String message) {
+        if (!running){
+            return false;
+        }
+        //队列已满时直接返回失败，由调用方决定如何处理，不阻塞请求线程
+        return queue.offer(new LocalMessage(topic, message));
+    }
+
+    private void consume(){
+        while (running){
+            try {
+                LocalMessage localMessage = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (localMessage != null){
+                    dispatch(localMessage);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void dispatch(LocalMessage localMessage){
+        messageListenerProvider.orderedStream()
+                .filter((messageListener) -> localMessage.getTopic().equals(messageListener.getTopic()))
+                .forEach((messageListener) -> {
+                    try {
+                        messageListener.onMessage(localMessage.getMessage());
+                    } catch (Exception e) {
+                        logger.error("LocalMessage|消费消息失败|{}|{}", localMessage.getTopic(), e.getMessage(), e);
+                    }
+                });
+    }
+
+    /**
+     * 停止接收新消息，并在关闭前消费完队列中剩余的消息
+     */
+    @PreDestroy
+    public void destroy(){
+        running = false;
+        consumerExecutor.shutdown();
+        try {
+            consumerExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<LocalMessage> remainMessages = new ArrayList<>();
+        queue.drainTo(remainMessages);
+        remainMessages.forEach(this::dispatch);
+    }
+
+    /**
+     * 本地消息
+     */
+    private static class LocalMessage {
+        private final String topic;
+        private final String message;
+
+        LocalMessage(String topic, String message) {
+            this.topic = topic;
+            this.message = message;
+        }
+
+        String getTopic() {
+            return topic;
+        }
+
+        String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.mq.rocketmq;
+
+import com.zzz.seckill.infrastructure.mq.MessageSenderService;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于RocketMQ的消息服务，需要配置rocketmq.name-server和rocketmq.producer.group
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "message.mq.type", havingValue = "rocketmq")
+public class RocketMQMessageSenderService implements MessageSenderService {
+    private final Logger logger = LoggerFactory.getLogger(RocketMQMessageSenderService.class);
+
+    @Autowired
+    private RocketMQTemplate rocketMQTemplate;
+
+    @Override
+    public boolean send(String topic, String message) {
+        try {
+            SendResult sendResult = rocketMQTemplate.syncSend(topic, message);
+            return sendResult != null && sendResult.getSendStatus() == SendStatus.SEND_OK;
+        } catch (Exception e) {
+            logger.error("RocketMQ|发送消息失败|{}|{}", topic, e.getMessage());
+            return false;
+        }
+    }
+}
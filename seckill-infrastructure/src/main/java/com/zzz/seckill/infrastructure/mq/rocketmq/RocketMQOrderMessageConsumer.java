@@ -0,0 +1,49 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.mq.rocketmq;
+
+import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.infrastructure.mq.MessageListener;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 消费RocketMQ中的下单消息，并分发给订阅了下单主题的监听器
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Component
+@ConditionalOnProperty(name = "message.mq.type", havingValue = "rocketmq")
+@RocketMQMessageListener(consumerGroup = SeckillConstants.TOPIC_ORDER_MSG + "_group", topic = SeckillConstants.TOPIC_ORDER_MSG)
+public class RocketMQOrderMessageConsumer implements RocketMQListener<String> {
+
+    @Autowired
+    private ObjectProvider<MessageListener> messageListenerProvider;
+
+    @Override
+    public void onMessage(String message) {
+        //监听器抛出的异常交由RocketMQ重试
+        messageListenerProvider.orderedStream()
+                .filter((messageListener) -> SeckillConstants.TOPIC_ORDER_MSG.equals(messageListener.getTopic()))
+                .forEach((messageListener) -> messageListener.onMessage(message));
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.pubsub;
+
+import java.util.function.Consumer;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 发布订阅服务接口，用于在多个节点之间广播消息
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public interface PubSubService {
+
+    /**
+     * 向指定频道广播消息
+     */
+    void publish(String channel, String message);
+
+    /**
+     * 订阅指定频道的消息
+     */
+    void subscribe(String channel, Consumer<String> listener);
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.pubsub.local;
+
+import com.zzz.seckill.infrastructure.pubsub.PubSubService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于内存的发布订阅，只在当前节点内广播消息，用于单机部署和测试
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Service
+@ConditionalOnProperty(name = "distributed.pubsub.type", havingValue = "local")
+public class LocalPubSubService implements PubSubService {
+    private static final Logger logger = LoggerFactory.getLogger(LocalPubSubService.class);
+
+    private final Map<String, List<Consumer<String>>> listenerMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String channel, String message) {
+        List<Consumer<String>> listeners = listenerMap.get(channel);
+        if (listeners == null){
+            return;
+        }
+        for (Consumer<String> listener : listeners){
+            try{
+                listener.accept(message);
+            }catch (Exception e){
+                logger.error("LocalPubSubService|处理广播消息异常|{},{}", channel, message, e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        listenerMap.computeIfAbsent(channel, (key) -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+}
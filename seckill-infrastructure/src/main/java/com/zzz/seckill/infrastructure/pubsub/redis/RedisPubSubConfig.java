@@ -0,0 +1,67 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.pubsub.redis;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description Redis发布订阅配置
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+@Configuration
+@ConditionalOnProperty(name = "distributed.pubsub.type", havingValue = "redis")
+public class RedisPubSubConfig {
+
+    //分发消息的线程数
+    @Value("${distributed.pubsub.executor.size:4}")
+    private int executorSize;
+    //等待分发的消息数量上限，超过后由订阅线程直接分发
+    @Value("${distributed.pubsub.executor.queue:10000}")
+    private int executorQueue;
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory){
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        //默认的SimpleAsyncTaskExecutor每条消息创建一个线程，使用有界线程池分发消息
+        container.setTaskExecutor(this.createTaskExecutor());
+        return container;
+    }
+
+    private ThreadPoolTaskExecutor createTaskExecutor(){
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(executorSize);
+        taskExecutor.setMaxPoolSize(executorSize);
+        taskExecutor.setQueueCapacity(executorQueue);
+        taskExecutor.setThreadNamePrefix("seckill-pubsub-");
+        taskExecutor.setDaemon(true);
+        //队列已满时在订阅线程中执行，降低接收速度，不丢弃消息
+        taskExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        taskExecutor.initialize();
+        return taskExecutor;
+    }
+}
@@ -19,10 +19,17 @@ import com.zzz.seckill.domain.code.HttpCode;
 import com.zzz.seckill.domain.exception.SeckillException;
 import com.zzz.seckill.domain.repository.SeckillGoodsRepository;
 import com.zzz.seckill.infrastructure.mapper.SeckillGoodsMapper;
+import com.zzz.seckill.infrastructure.repository.batch.SeckillGoodsStockMergeExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.zzz.seckill.domain.model.entity.SeckillGoods;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * @author binghe(微信 : hacker_binghe)
@@ -37,6 +44,34 @@ public class SeckillGoodsRepositoryImpl implements SeckillGoodsRepository {
     @Autowired
     private SeckillGoodsMapper seckillGoodsMapper;
 
+    @Value("${goods.stock.merge.enabled:false}")
+    private boolean stockMergeEnabled;
+    @Value("${goods.stock.merge.capacity:10000}")
+    private int stockMergeCapacity;
+    @Value("${goods.stock.merge.size:500}")
+    private int stockMergeSize;
+    @Value("${goods.stock.merge.window:5}")
+    private long stockMergeWindow;
+    @Value("${goods.stock.merge.timeout:1000}")
+    private long stockMergeTimeout;
+
+    private SeckillGoodsStockMergeExecutor seckillGoodsStockMergeExecutor;
+
+    @PostConstruct
+    public void init(){
+        if (stockMergeEnabled){
+            seckillGoodsStockMergeExecutor = new SeckillGoodsStockMergeExecutor(seckillGoodsMapper, stockMergeCapacity, stockMergeSize, stockMergeWindow);
+            seckillGoodsStockMergeExecutor.start();
+        }
+    }
+
+    @PreDestroy
+    public void destroy(){
+        if (seckillGoodsStockMergeExecutor != null){
+            seckillGoodsStockMergeExecutor.shutdown();
+        }
+    }
+
     @Override
     public int saveSeckillGoods(SeckillGoods seckillGoods) {
         if (seckillGoods == null){
@@ -62,7 +97,27 @@ public class SeckillGoodsRepositoryImpl implements SeckillGoodsRepository {
 
     @Override
     public int updateAvailableStock(Integer count, Long id) {
-        return seckillGoodsMapper.updateAvailableStock(count, id);
+        //处于事务中的扣减必须和事务一起提交或回滚，不能参与合并
+        if (seckillGoodsStockMergeExecutor == null || TransactionSynchronizationManager.isActualTransactionActive()){
+            return seckillGoodsMapper.updateAvailableStock(count, id);
+        }
+        try {
+            Boolean result = seckillGoodsStockMergeExecutor.execute(new SeckillGoodsStockMergeExecutor.StockDeduction(count, id), stockMergeTimeout);
+            //合并队列已满或者等待超时，直接使用带库存条件的单条update扣减
+            if (result == null){
+                return seckillGoodsMapper.updateAvailableStock(count, id);
+            }
+            return result ? 1 : 0;
+        } catch (InterruptedException e) {
+            //被中断时请求已经撤回，库存没有扣减
+            Thread.currentThread().interrupt();
+            throw new SeckillException(HttpCode.RETRY_LATER);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException){
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SeckillException(HttpCode.STOCK_LT_ZERO);
+        }
     }
 
     @Override
@@ -20,10 +20,16 @@ import com.zzz.seckill.domain.code.HttpCode;
 import com.zzz.seckill.domain.exception.SeckillException;
 import com.zzz.seckill.domain.repository.SeckillOrderRepository;
 import com.zzz.seckill.infrastructure.mapper.SeckillOrderMapper;
+import com.zzz.seckill.infrastructure.repository.batch.SeckillOrderBatchExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;import com.zzz.seckill.domain.model.entity.SeckillOrder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * @author binghe(微信 : hacker_binghe)
@@ -37,12 +43,60 @@ public class SeckillOrderRepositoryImpl implements SeckillOrderRepository {
     @Autowired
     private SeckillOrderMapper seckillOrderMapper;
 
+    @Value("${order.batch.save.enabled:false}")
+    private boolean batchSaveEnabled;
+    @Value("${order.batch.save.capacity:10000}")
+    private int batchSaveCapacity;
+    @Value("${order.batch.save.size:200}")
+    private int batchSaveSize;
+    @Value("${order.batch.save.window:5}")
+    private long batchSaveWindow;
+    @Value("${order.batch.save.timeout:1000}")
+    private long batchSaveTimeout;
+
+    private SeckillOrderBatchExecutor seckillOrderBatchExecutor;
+
+    @PostConstruct
+    public void init(){
+        if (batchSaveEnabled){
+            seckillOrderBatchExecutor = new SeckillOrderBatchExecutor(seckillOrderMapper, batchSaveCapacity, batchSaveSize, batchSaveWindow);
+            seckillOrderBatchExecutor.start();
+        }
+    }
+
+    @PreDestroy
+    public void destroy(){
+        if (seckillOrderBatchExecutor != null){
+            seckillOrderBatchExecutor.shutdown();
+        }
+    }
+
     @Override
     public boolean saveSeckillOrder(SeckillOrder seckillOrder) {
         if (seckillOrder == null){
             throw new SeckillException(HttpCode.PARAMS_INVALID);
         }
-        return seckillOrderMapper.saveSeckillOrder(seckillOrder) == 1;
+        //处于事务中的订单必须和事务一起提交或回滚，不能合并到批量写入中
+        if (seckillOrderBatchExecutor == null || TransactionSynchronizationManager.isActualTransactionActive()){
+            return seckillOrderMapper.saveSeckillOrder(seckillOrder) == 1;
+        }
+        try {
+            Boolean result = seckillOrderBatchExecutor.execute(seckillOrder, batchSaveTimeout);
+            //批量队列已满或者等待超时，直接写入
+            if (result == null){
+                return seckillOrderMapper.saveSeckillOrder(seckillOrder) == 1;
+            }
+            return result;
+        } catch (InterruptedException e) {
+            //被中断时请求已经撤回，订单没有写入
+            Thread.currentThread().interrupt();
+            throw new SeckillException(HttpCode.RETRY_LATER);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException){
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SeckillException(HttpCode.ORDER_FAILED);
+        }
     }
 
     @Override
@@ -54,4 +108,9 @@ public class SeckillOrderRepositoryImpl implements SeckillOrderRepository {
     public List<SeckillOrder> getSeckillOrderByActivityId(Long activityId) {
         return seckillOrderMapper.getSeckillOrderByActivityId(activityId);
     }
+
+    @Override
+    public SeckillOrder getSeckillOrderById(Long id) {
+        return seckillOrderMapper.getSeckillOrderById(id);
+    }
 }
@@ -0,0 +1,216 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.repository.batch;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 批量执行器，将多个并发调用方的请求按数量和时间窗口合并为一批执行，每个调用方通过Future获取自己的执行结果
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public abstract class BatchExecutor<T> {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final BlockingQueue<BatchRequest<T>> queue;
+    private final int batchSize;
+    private final long windowNanos;
+    private final Thread drainThread;
+    private volatile boolean running;
+    /**
+     * 提交请求时持有读锁，停止时持有写锁，保证停止后不会再有请求进入队列
+     */
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+
+    protected BatchExecutor(String name, int capacity, int batchSize, long windowMillis) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.drainThread = new Thread(this::drain, name);
+        this.drainThread.setDaemon(true);
+    }
+
+    public void start(){
+        running = true;
+        drainThread.start();
+    }
+
+    /**
+     * 提交请求并等待执行结果，返回null时由调用方直接执行，包括队列已满、执行器已停止、等待超时并且请求还未开始执行三种情况
+     * 请求已经开始执行时结果未知，不能由调用方执行或者补偿，一直等待执行线程给出的真实结果
+     * 抛出InterruptedException时请求已经撤回，没有被执行
+     */
+    public Boolean execute(T data, long timeoutMillis) throws InterruptedException, ExecutionException {
+        BatchRequest<T> request = this.submit(data);
+        if (request == null){
+            return null;
+        }
+        try {
+            return request.getFuture().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            //请求还在队列中，撤回后执行线程不会再执行
+            if (request.claim()){
+                logger.warn("BatchExecutor|等待批量执行超时，撤回请求|{}", timeoutMillis);
+                return null;
+            }
+        } catch (InterruptedException e) {
+            if (request.claim()){
+                throw e;
+            }
+            //请求已经开始执行，等待真实结果后再恢复中断状态
+            Thread.currentThread().interrupt();
+        }
+        logger.warn("BatchExecutor|请求已经开始执行，等待执行结果|{}", timeoutMillis);
+        return Uninterruptibles.getUninterruptibly(request.getFuture());
+    }
+
+    /**
+     * 提交请求，队列已满或执行器已停止时返回null
+     */
+    private BatchRequest<T> submit(T data){
+        runningLock.readLock().lock();
+        try {
+            if (!running){
+                return null;
+            }
+            BatchRequest<T> request = new BatchRequest<>(data);
+            return queue.offer(request) ? request : null;
+        } finally {
+            runningLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 停止接收新请求，并在关闭前执行完队列中剩余的请求
+     */
+    public void shutdown(){
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        try {
+            drainThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<BatchRequest<T>> remainRequests = new ArrayList<>();
+        queue.drainTo(remainRequests);
+        for (int i = 0; i < remainRequests.size(); i += batchSize){
+            this.executeSafely(remainRequests.subList(i, Math.min(i + batchSize, remainRequests.size())));
+        }
+    }
+
+    /**
+     * 执行一批请求，实现类需要完成每个请求的Future
+     */
+    protected abstract void executeBatch(List<BatchRequest<T>> requests);
+
+    private void drain(){
+        List<BatchRequest<T>> requests = new ArrayList<>(batchSize);
+        while (running){
+            try {
+                BatchRequest<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null){
+                    continue;
+                }
+                requests.add(first);
+                //在时间窗口内尽量凑满一批
+                long deadline = System.nanoTime() + windowNanos;
+                while (requests.size() < batchSize){
+                    if (queue.drainTo(requests, batchSize - requests.size()) > 0){
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0){
+                        break;
+                    }
+                    BatchRequest<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null){
+                        break;
+                    }
+                    requests.add(next);
+                }
+                this.executeSafely(requests);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.executeSafely(requests);
+                return;
+            } finally {
+                requests.clear();
+            }
+        }
+    }
+
+    private void executeSafely(List<BatchRequest<T>> requests){
+        //跳过调用方已经撤回的请求
+        requests.removeIf((request) -> !request.claim());
+        if (requests.isEmpty()){
+            return;
+        }
+        try {
+            this.executeBatch(requests);
+        } catch (Throwable e) {
+            logger.error("BatchExecutor|批量执行异常|{}", e.getMessage(), e);
+            requests.forEach((request) -> request.getFuture().completeExceptionally(e));
+        }
+    }
+
+    /**
+     * 批量请求
+     */
+    public static class BatchRequest<T> {
+        private final T data;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        /**
+         * 执行线程取出执行和调用方撤回只能有一个成功
+         */
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        BatchRequest(T data) {
+            this.data = data;
+        }
+
+        public T getData() {
+            return data;
+        }
+
+        public CompletableFuture<Boolean> getFuture() {
+            return future;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
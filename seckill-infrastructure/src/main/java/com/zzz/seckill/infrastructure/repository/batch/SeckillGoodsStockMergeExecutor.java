@@ -0,0 +1,115 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.repository.batch;
+
+import com.zzz.seckill.infrastructure.mapper.SeckillGoodsMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 商品库存合并扣减，时间窗口内同一商品的多次扣减合并为一条update语句，减少热点行锁的竞争
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SeckillGoodsStockMergeExecutor extends BatchExecutor<SeckillGoodsStockMergeExecutor.StockDeduction> {
+    private static final Logger logger = LoggerFactory.getLogger(SeckillGoodsStockMergeExecutor.class);
+
+    private final SeckillGoodsMapper seckillGoodsMapper;
+
+    public SeckillGoodsStockMergeExecutor(SeckillGoodsMapper seckillGoodsMapper, int capacity, int batchSize, long windowMillis) {
+        super("seckill.goods.stock.merge", capacity, batchSize, windowMillis);
+        this.seckillGoodsMapper = seckillGoodsMapper;
+    }
+
+    @Override
+    protected void executeBatch(List<BatchRequest<StockDeduction>> requests) {
+        //按照商品分组，保持请求的先后顺序
+        Map<Long, List<BatchRequest<StockDeduction>>> goodsRequestMap = new LinkedHashMap<>();
+        for (BatchRequest<StockDeduction> request : requests){
+            goodsRequestMap.computeIfAbsent(request.getData().getId(), (key) -> new ArrayList<>()).add(request);
+        }
+        goodsRequestMap.forEach((id, goodsRequests) -> {
+            try {
+                this.updateAvailableStock(id, goodsRequests);
+            } catch (Exception e) {
+                logger.error("SeckillGoodsStockMergeExecutor|合并扣减库存失败|{}|{}", id, e.getMessage());
+                goodsRequests.forEach((request) -> request.getFuture().completeExceptionally(e));
+            }
+        });
+    }
+
+    private void updateAvailableStock(Long id, List<BatchRequest<StockDeduction>> goodsRequests){
+        int totalCount = goodsRequests.stream().mapToInt((request) -> request.getData().getCount()).sum();
+        //合并后的库存充足，一条语句全部扣减
+        if (seckillGoodsMapper.updateAvailableStock(totalCount, id) > 0){
+            goodsRequests.forEach((request) -> request.getFuture().complete(true));
+            return;
+        }
+        //合并后的库存不足，按照请求顺序分配剩余库存
+        Integer availableStock = seckillGoodsMapper.getAvailableStockById(id);
+        int remainStock = availableStock == null ? 0 : availableStock;
+        List<BatchRequest<StockDeduction>> grantedRequests = new ArrayList<>();
+        int grantedCount = 0;
+        for (BatchRequest<StockDeduction> request : goodsRequests){
+            int count = request.getData().getCount();
+            if (grantedCount + count <= remainStock){
+                grantedCount += count;
+                grantedRequests.add(request);
+            }else {
+                request.getFuture().complete(false);
+            }
+        }
+        if (grantedRequests.isEmpty()){
+            return;
+        }
+        if (seckillGoodsMapper.updateAvailableStock(grantedCount, id) > 0){
+            grantedRequests.forEach((request) -> request.getFuture().complete(true));
+            return;
+        }
+        //库存被其他写入修改，逐条扣减
+        for (BatchRequest<StockDeduction> request : grantedRequests){
+            request.getFuture().complete(seckillGoodsMapper.updateAvailableStock(request.getData().getCount(), id) > 0);
+        }
+    }
+
+    /**
+     * 库存扣减请求
+     */
+    public static class StockDeduction {
+        private final Integer count;
+        private final Long id;
+
+        public StockDeduction(Integer count, Long id) {
+            this.count = count;
+            this.id = id;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public Long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.repository.batch;
+
+import com.zzz.seckill.domain.model.entity.SeckillOrder;
+import com.zzz.seckill.infrastructure.mapper.SeckillOrderMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 订单批量写入，一批订单使用一条多值insert语句提交，失败时逐条写入以区分每个订单的结果
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SeckillOrderBatchExecutor extends BatchExecutor<SeckillOrder> {
+    private static final Logger logger = LoggerFactory.getLogger(SeckillOrderBatchExecutor.class);
+
+    private final SeckillOrderMapper seckillOrderMapper;
+
+    public SeckillOrderBatchExecutor(SeckillOrderMapper seckillOrderMapper, int capacity, int batchSize, long windowMillis) {
+        super("seckill.order.batch", capacity, batchSize, windowMillis);
+        this.seckillOrderMapper = seckillOrderMapper;
+    }
+
+    @Override
+    protected void executeBatch(List<BatchRequest<SeckillOrder>> requests) {
+        List<SeckillOrder> seckillOrderList = requests.stream().map(BatchRequest::getData).collect(Collectors.toList());
+        try {
+            //多值insert是一条语句，要么全部成功，要么全部失败
+            seckillOrderMapper.saveSeckillOrderBatch(seckillOrderList);
+            requests.forEach((request) -> request.getFuture().complete(true));
+            return;
+        } catch (Exception e) {
+            logger.error("SeckillOrderBatchExecutor|批量保存订单失败，逐条保存|{}|{}", requests.size(), e.getMessage());
+        }
+        //批量写入失败，逐条写入
+        for (BatchRequest<SeckillOrder> request : requests){
+            try {
+                request.getFuture().complete(seckillOrderMapper.saveSeckillOrder(request.getData()) == 1);
+            } catch (Exception e) {
+                request.getFuture().completeExceptionally(e);
+            }
+        }
+    }
+}
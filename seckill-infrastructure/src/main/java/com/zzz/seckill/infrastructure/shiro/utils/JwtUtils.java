@@ -17,26 +17,51 @@ import java.util.Date;
  * 可以改造为非对称加密: 公钥加密，私钥解密 私钥生成签名，公钥验证签名
  */
 public class JwtUtils {
+    /**
+     * 默认密钥的签名算法和校验器，线程安全，只创建一次
+     */
+    private static final Algorithm DEFAULT_ALGORITHM = Algorithm.HMAC256(SeckillConstants.JWT_SECRET);
+    private static final JWTVerifier DEFAULT_VERIFIER = JWT.require(DEFAULT_ALGORITHM).build();
+
     /**
      * 校验token是否正确
      * @param token  密钥
      * @return 是否正确
      */
     public static boolean verify(String token, String secret) {
+        return verifyAndDecode(token, secret) != null;
+    }
+
+    /**
+     * 使用默认密钥校验token的签名和过期时间
+     * @return 校验通过返回解析后的token，否则返回null
+     */
+    public static DecodedJWT verifyAndDecode(String token) {
+        return verifyAndDecode(token, SeckillConstants.JWT_SECRET);
+    }
+
+    /**
+     * 校验token的签名和过期时间
+     * @return 校验通过返回解析后的token，否则返回null
+     */
+    public static DecodedJWT verifyAndDecode(String token, String secret) {
         try {
-            //根据密码生成JWT效验器
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withClaim(SeckillConstants.TOKEN_CLAIM, getUserId(token))
-                    .build();
-            // 效验TOKEN
-            verifier.verify(token);
-            return true;
+            JWTVerifier verifier = SeckillConstants.JWT_SECRET.equals(secret) ? DEFAULT_VERIFIER : JWT.require(Algorithm.HMAC256(secret)).build();
+            return verifier.verify(token);
         } catch (JWTVerificationException exception) {
-            return false;
+            return null;
         }
     }
 
+    /**
+     * 获取校验通过的token中的用户id
+     * @return 校验失败或者不包含用户id时返回null
+     */
+    public static Long verifyAndGetUserId(String token) {
+        DecodedJWT jwt = verifyAndDecode(token);
+        return jwt == null ? null : jwt.getClaim(SeckillConstants.TOKEN_CLAIM).asLong();
+    }
+
 
     /**
      * 获得token中的信息无需secret解密也能获得
@@ -59,7 +84,7 @@ public class JwtUtils {
      */
     public static String sign(Long userId, String secret) {
         Date date = new Date(System.currentTimeMillis() + SeckillConstants.TOKEN_EXPIRE_TIME);
-        Algorithm algorithm = Algorithm.HMAC256(secret);
+        Algorithm algorithm = SeckillConstants.JWT_SECRET.equals(secret) ? DEFAULT_ALGORITHM : Algorithm.HMAC256(secret);
         return JWT.create()
                 .withClaim(SeckillConstants.TOKEN_CLAIM, userId)
                 .withExpiresAt(date)
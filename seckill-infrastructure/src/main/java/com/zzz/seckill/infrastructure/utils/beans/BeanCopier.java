@@ -0,0 +1,173 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.utils.beans;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 对象属性复制器，按照源类型和目标类型缓存，通过LambdaMetafactory生成属性的读写方法，复制时忽略null和空字符串
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class BeanCopier {
+    /**
+     * 源类型 -> 目标类型 -> 复制器
+     */
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, BeanCopier>> COPIER_CACHE = new ConcurrentHashMap<>();
+
+    private final PropertyCopier[] propertyCopiers;
+
+    private BeanCopier(Class<?> sourceClass, Class<?> targetClass) {
+        List<PropertyCopier> propertyCopierList = new ArrayList<>();
+        //与Spring BeanUtils.copyProperties的匹配规则保持一致：属性名相同，源对象可读，目标对象可写，并且类型兼容
+        for (PropertyDescriptor targetPd : BeanUtils.getPropertyDescriptors(targetClass)){
+            Method writeMethod = targetPd.getWriteMethod();
+            if (writeMethod == null){
+                continue;
+            }
+            PropertyDescriptor sourcePd = BeanUtils.getPropertyDescriptor(sourceClass, targetPd.getName());
+            if (sourcePd == null || sourcePd.getReadMethod() == null){
+                continue;
+            }
+            Method readMethod = sourcePd.getReadMethod();
+            if (!isAssignable(readMethod, writeMethod)){
+                continue;
+            }
+            propertyCopierList.add(new PropertyCopier(createGetter(readMethod), createSetter(writeMethod)));
+        }
+        this.propertyCopiers = propertyCopierList.toArray(new PropertyCopier[0]);
+    }
+
+    /**
+     * 获取复制器
+     */
+    public static BeanCopier getBeanCopier(Class<?> sourceClass, Class<?> targetClass){
+        return COPIER_CACHE.computeIfAbsent(sourceClass, (key) -> new ConcurrentHashMap<>())
+                .computeIfAbsent(targetClass, (key) -> new BeanCopier(sourceClass, targetClass));
+    }
+
+    /**
+     * 复制属性，忽略源对象中为null和空字符串的属性
+     */
+    public void copy(Object source, Object target){
+        for (PropertyCopier propertyCopier : propertyCopiers){
+            Object value = propertyCopier.getter.apply(source);
+            if (value == null || ((value instanceof String) && ((String) value).isEmpty())){
+                continue;
+            }
+            propertyCopier.setter.accept(target, value);
+        }
+    }
+
+    private static boolean isAssignable(Method readMethod, Method writeMethod){
+        ResolvableType sourceResolvableType = ResolvableType.forMethodReturnType(readMethod);
+        ResolvableType targetResolvableType = ResolvableType.forMethodParameter(writeMethod, 0);
+        if (sourceResolvableType.hasUnresolvableGenerics() || targetResolvableType.hasUnresolvableGenerics()){
+            return ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType());
+        }
+        return targetResolvableType.isAssignableFrom(sourceResolvableType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetter(Method readMethod){
+        if (isPublic(readMethod)){
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(readMethod);
+                CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(wrap(readMethod.getReturnType()), readMethod.getDeclaringClass()));
+                return (Function<Object, Object>) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                //无法生成Lambda时，例如类加载器不可见，退化为反射调用
+            }
+        }
+        readMethod.setAccessible(true);
+        return (source) -> {
+            try {
+                return readMethod.invoke(source);
+            } catch (Exception e) {
+                throw new FatalBeanException("Could not read property from source by '" + readMethod.getName() + "'", e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createSetter(Method writeMethod){
+        if (isPublic(writeMethod)){
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(writeMethod);
+                CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, writeMethod.getDeclaringClass(), wrap(writeMethod.getParameterTypes()[0])));
+                return (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                //无法生成Lambda时，例如类加载器不可见，退化为反射调用
+            }
+        }
+        writeMethod.setAccessible(true);
+        return (target, value) -> {
+            try {
+                writeMethod.invoke(target, value);
+            } catch (Exception e) {
+                throw new FatalBeanException("Could not write property to target by '" + writeMethod.getName() + "'", e);
+            }
+        };
+    }
+
+    private static boolean isPublic(Method method){
+        return Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers());
+    }
+
+    private static Class<?> wrap(Class<?> clazz){
+        return clazz.isPrimitive() ? MethodType.methodType(clazz).wrap().returnType() : clazz;
+    }
+
+    private static class PropertyCopier {
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+
+        PropertyCopier(Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.util.Assert;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -38,6 +39,17 @@ public class BeanUtil {
      * @param target：目标对象
      */
     public static void copyProperties(Object source, Object target) {
+        Assert.notNull(source, "Source must not be null");
+        Assert.notNull(target, "Target must not be null");
+        BeanCopier.getBeanCopier(source.getClass(), target.getClass()).copy(source, target);
+    }
+
+    /**
+     * 基于反射忽略空属性复制对象，每次调用都会重新解析属性，用于和copyProperties进行对比
+     * @param source：源对象
+     * @param target：目标对象
+     */
+    public static void copyPropertiesByReflection(Object source, Object target) {
         BeanUtils.copyProperties(source, target, getNullPropertyNames(source));
     }
 
@@ -0,0 +1,39 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.utils.id;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description ID生成器工厂，Spring容器启动后使用配置的ID生成器，启动前使用默认的雪花算法
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class IdGeneratorFactory {
+
+    private static volatile IdGenerator idGenerator = SnowFlakeFactory.getSnowFlakeFromCache();
+
+    public static IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    public static void setIdGenerator(IdGenerator idGenerator) {
+        if (idGenerator == null){
+            throw new IllegalArgumentException("idGenerator can't be null");
+        }
+        IdGeneratorFactory.idGenerator = idGenerator;
+    }
+}
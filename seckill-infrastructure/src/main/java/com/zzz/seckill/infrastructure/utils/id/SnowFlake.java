@@ -1,13 +1,16 @@
 package com.zzz.seckill.infrastructure.utils.id;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * @author binghe
  * @version 1.0.0
  * @description 雪花算法生成分布式序列号
  */
-public class SnowFlake {
+public class SnowFlake implements IdGenerator {
     /**
      * 起始的时间戳:2023-04-19 13:42:00，使用时此值不可修改
      */
@@ -34,10 +37,25 @@ public class SnowFlake {
     private final static long DATACENTER_LEFT = SEQUENCE_BIT + MACHINE_BIT;
     private final static long TIMESTMP_LEFT   = DATACENTER_LEFT + DATACENTER_BIT;
 
-    private long datacenterId;  //数据中心
-    private long machineId;     //机器标识
-    private long sequence = 0L; //序列号
-    private long lastStmp = -1L;//上一次时间戳
+    /**
+     * 允许借用未来时间的最大毫秒数，超过后等待时钟追上，机器id注册中心释放机器id时需要至少保留这段时间
+     */
+    public final static long MAX_BORROW_MILLIS = 1000L;
+    /**
+     * 时钟回拨或借用时间超过此值时不再等待，直接抛出异常
+     */
+    private final static long MAX_BACKWARD_MILLIS = 5000L;
+    /**
+     * 单次批量生成ID的最大数量，不能超过允许借用的时间内的全部序列号，否则等待时钟也无法满足
+     */
+    private final static long MAX_BATCH_COUNT = (MAX_BORROW_MILLIS + 1) << SEQUENCE_BIT;
+
+    private final long datacenterId;  //数据中心
+    private final long machineId;     //机器标识
+    /**
+     * 上一次生成的时间戳和序列号，高位为相对起始时间的时间戳，低位为序列号，序列号溢出时自动进位到时间戳，即借用下一毫秒
+     */
+    private final AtomicLong lastState = new AtomicLong(0L);
 
     public SnowFlake(long datacenterId, long machineId) {
         if (datacenterId > MAX_DATACENTER_NUM || datacenterId < 0) {
@@ -53,38 +71,57 @@ public class SnowFlake {
     /**
      * 产生下一个ID
      */
-    public synchronized long nextId() {
-        long currStmp = getNewstmp();
-        if (currStmp < lastStmp) {
-            throw new RuntimeException("Clock moved backwards.  Refusing to generate id");
+    @Override
+    public long nextId() {
+        return toId(nextState(1));
+    }
+
+    /**
+     * 批量产生ID，只进行一次CAS操作
+     */
+    public long[] nextIds(int count) {
+        if (count <= 0 || count > MAX_BATCH_COUNT) {
+            throw new IllegalArgumentException("count must be greater than 0 and not greater than " + MAX_BATCH_COUNT);
+        }
+        long endState = nextState(count);
+        long[] ids = new long[count];
+        long state = endState - count + 1;
+        for (int i = 0; i < count; i++) {
+            ids[i] = toId(state + i);
         }
+        return ids;
+    }
 
-        if (currStmp == lastStmp) {
-            //相同毫秒内，序列号自增
-            sequence = (sequence + 1) & MAX_SEQUENCE;
-            //同一毫秒的序列数已经达到最大
-            if (sequence == 0L) {
-                currStmp = getNextMill();
+    /**
+     * 分配count个连续的状态，返回最后一个状态
+     */
+    private long nextState(int count) {
+        while (true) {
+            long prevState = lastState.get();
+            long currStmp = getNewstmp() - START_STMP;
+            //取上一次状态加1和当前时间的较大值，时钟小幅回拨或者同一毫秒序列号用完时继续使用上一次的时间戳
+            long startState = Math.max(prevState + 1, currStmp << SEQUENCE_BIT);
+            long endState = startState + count - 1;
+            long aheadMillis = (endState >>> SEQUENCE_BIT) - currStmp;
+            if (aheadMillis > MAX_BORROW_MILLIS) {
+                if (aheadMillis > MAX_BACKWARD_MILLIS) {
+                    throw new IllegalStateException("Clock moved backwards.  Refusing to generate id");
+                }
+                //借用的时间过多，等待时钟追上
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(aheadMillis - MAX_BORROW_MILLIS));
+                continue;
+            }
+            if (lastState.compareAndSet(prevState, endState)) {
+                return endState;
             }
-        } else {
-            //不同毫秒内，序列号置为0
-            sequence = 0L;
         }
-
-        lastStmp = currStmp;
-
-        return (currStmp - START_STMP) << TIMESTMP_LEFT //时间戳部分
-                | datacenterId << DATACENTER_LEFT       //数据中心部分
-                | machineId << MACHINE_LEFT             //机器标识部分
-                | sequence;                             //序列号部分
     }
 
-    private long getNextMill() {
-        long mill = getNewstmp();
-        while (mill <= lastStmp) {
-            mill = getNewstmp();
-        }
-        return mill;
+    private long toId(long state) {
+        return (state >>> SEQUENCE_BIT) << TIMESTMP_LEFT //时间戳部分
+                | datacenterId << DATACENTER_LEFT         //数据中心部分
+                | machineId << MACHINE_LEFT               //机器标识部分
+                | (state & MAX_SEQUENCE);                 //序列号部分
     }
 
     private long getNewstmp() {
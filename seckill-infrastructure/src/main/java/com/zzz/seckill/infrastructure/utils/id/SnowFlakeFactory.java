@@ -38,12 +38,7 @@ public class SnowFlakeFactory {
 	}
 	
 	public static SnowFlake getSnowFlakeFromCache() {
-		SnowFlake snowFlake = snowFlakeCache.get(DEFAULT_SNOW_FLAKE);
-		if(snowFlake == null) {
-			snowFlake = new SnowFlake(DEFAULT_DATACENTER_ID, DEFAULT_MACHINE_ID);
-			snowFlakeCache.put(DEFAULT_SNOW_FLAKE, snowFlake);
-		}
-		return snowFlake;
+		return DefaultSnowFlakeHolder.INSTANCE;
 	}
 	
 	/**
@@ -59,12 +54,23 @@ public class SnowFlakeFactory {
             throw new IllegalArgumentException("machineId can't be greater than MAX_MACHINE_NUM or less than 0");
         }
 		String key = DEFAULT_SNOW_FLAKE.concat("_").concat(String.valueOf(dataCenterId)).concat("_").concat(String.valueOf(machineId));
-		SnowFlake snowFlake = snowFlakeCache.get(key);
-		if(snowFlake == null) {
-			snowFlake = new SnowFlake(dataCenterId, machineId);
-			snowFlakeCache.put(key, snowFlake);
-		}
-		return snowFlake;
+		return snowFlakeCache.computeIfAbsent(key, (k) -> new SnowFlake(dataCenterId, machineId));
+	}
+
+	/**
+	 * 根据机器id从缓存中获取全局id，机器id的高位为数据中心id，低位为机器id
+	 * @param workerId: 取值为0~1023
+	 */
+	public static SnowFlake getSnowFlakeByWorkerIdFromCache(long workerId) {
+		long machineBit = Long.bitCount(SnowFlake.getMaxMachineNum());
+		return getSnowFlakeByDataCenterIdAndMachineIdFromCache(workerId >> machineBit, workerId & SnowFlake.getMaxMachineNum());
+	}
+
+	/**
+	 * 默认的雪花算法对象，类加载时创建，获取时无需查询缓存
+	 */
+	private static class DefaultSnowFlakeHolder {
+		private static final SnowFlake INSTANCE = snowFlakeCache.computeIfAbsent(DEFAULT_SNOW_FLAKE, (k) -> new SnowFlake(DEFAULT_DATACENTER_ID, DEFAULT_MACHINE_ID));
 	}
 	
 	public static void main(String[] args) {
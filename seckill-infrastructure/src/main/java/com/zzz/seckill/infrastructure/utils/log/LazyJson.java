@@ -0,0 +1,42 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.utils.log;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 日志参数延迟序列化，只有日志真正输出时才会调用toString序列化为JSON
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public final class LazyJson {
+    private final Object value;
+
+    private LazyJson(Object value) {
+        this.value = value;
+    }
+
+    public static LazyJson of(Object value){
+        return new LazyJson(value);
+    }
+
+    @Override
+    public String toString() {
+        return JSON.toJSONString(value);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.utils.log;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 按日志分类采样，在格式化消息和进入Appender之前丢弃未采样的INFO及以下日志，WARN和ERROR不采样
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private static final double FULL_RATE = 1.0D;
+    /**
+     * 分类前缀到采样率，倒序排列，遍历时先遇到最长的前缀
+     */
+    private final Map<String, Double> sampleRates = new TreeMap<>((o1, o2) -> o2.compareTo(o1));
+    /**
+     * Logger名称到采样率的缓存，Logger数量有限，避免每条日志都做前缀匹配
+     */
+    private final Map<String, Double> loggerRates = new ConcurrentHashMap<>();
+
+    /**
+     * 配置项格式：分类=采样率，分类为Logger名称前缀，最长前缀优先，采样率取值[0, 1]
+     */
+    public void addSample(String sample){
+        int index = sample == null ? -1 : sample.lastIndexOf('=');
+        if (index <= 0){
+            addError("invalid sample, expected category=rate: " + sample);
+            return;
+        }
+        String category = sample.substring(0, index).trim();
+        try{
+            double rate = Double.parseDouble(sample.substring(index + 1).trim());
+            sampleRates.put(category, Math.max(0D, Math.min(FULL_RATE, rate)));
+        }catch (NumberFormatException e){
+            addError("invalid sample rate: " + sample);
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        //isXxxEnabled()调用时format为空，不参与采样，避免判断和输出各采样一次
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)){
+            return FilterReply.NEUTRAL;
+        }
+        double rate = loggerRates.computeIfAbsent(logger.getName(), this::getSampleRate);
+        if (rate >= FULL_RATE){
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private double getSampleRate(String loggerName){
+        for (Map.Entry<String, Double> entry : sampleRates.entrySet()){
+            String category = entry.getKey();
+            if (loggerName.startsWith(category)
+                    && (loggerName.length() == category.length() || loggerName.charAt(category.length()) == '.')){
+                return entry.getValue();
+            }
+        }
+        return FULL_RATE;
+    }
+}
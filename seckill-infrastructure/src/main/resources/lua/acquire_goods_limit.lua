@@ -0,0 +1,27 @@
+-- lua逻辑：检查并累加用户已购数量，用户已购数量加上本次购买数量超过限购数量返回-4，成功返回1，用于不经过扣减库存脚本的下单方式
+-- 入参：
+-- KEYS[1] : 商品限购的key，Hash结构，field为用户id，value为用户已购数量
+-- ARGV[1] : 用户id
+-- ARGV[2] : 本次购买数量
+-- ARGV[3] : 每个用户的限购数量
+-- ARGV[4] : 商品限购的key的过期时间戳，单位毫秒
+local limitKey = KEYS[1]
+local paramStock = tonumber(ARGV[2])
+
+-- 参数不能小于或者等于0
+if paramStock <= 0 then
+    return -2
+end
+
+-- 超过限购数量
+local purchased = tonumber(redis.call('hget', limitKey, ARGV[1]) or 0)
+if purchased + paramStock > tonumber(ARGV[3]) then
+    return -4
+end
+redis.call('hincrby', limitKey, ARGV[1], paramStock)
+
+-- 首次写入时按照活动结束时间设置过期时间
+if redis.call('pttl', limitKey) == -1 then
+    redis.call('pexpireat', limitKey, ARGV[4])
+end
+return 1
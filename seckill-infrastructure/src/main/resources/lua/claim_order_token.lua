@@ -0,0 +1,27 @@
+-- lua逻辑：认领下单令牌，令牌不存在或者已过期返回-1，令牌未被使用时记录下单命令并返回1，
+-- 令牌已经被相同的下单命令认领过返回2，令牌已经被其他下单命令认领过返回-2
+-- 令牌状态：0为已发放未使用，认领后为下单命令的标识，格式为 商品id:购买数量
+-- 入参：
+-- KEYS[1] : 下单令牌的key
+-- ARGV[1] : 认领后令牌的过期时间，单位秒
+-- ARGV[2] : 商品id
+-- ARGV[3] : 购买数量
+local state = redis.call('get', KEYS[1])
+
+-- 令牌不存在或者已过期
+if not state then
+    return -1
+end
+
+local command = ARGV[2] .. ':' .. ARGV[3]
+
+-- 令牌已经被认领，相同的下单命令属于重复提交，不同的下单命令不能复用令牌
+if tonumber(state) ~= 0 then
+    if state == command then
+        return 2
+    end
+    return -2
+end
+
+redis.call('set', KEYS[1], command, 'EX', tonumber(ARGV[1]))
+return 1
@@ -1,7 +1,12 @@
--- lua逻辑：首先判断活动库存是否存在，如果库存不存在则返回-1，接下来判断传入的要扣减的库存是否大于0，如果要扣减的库存不大于0，则返回-2，库存不足返回-3，扣减库存成功返回1
--- 两个入参：
+-- lua逻辑：首先判断活动库存是否存在，如果库存不存在则返回-1，接下来判断传入的要扣减的库存是否大于0，如果要扣减的库存不大于0，则返回-2，库存已售罄返回-5，剩余库存小于扣减数量返回-3，扣减库存成功返回1
+-- 传入限购信息时，用户已购数量加上本次购买数量超过限购数量返回-4，扣减库存的同时累加用户已购数量
+-- 入参：
 -- KEYS[1] : 活动库存的key
+-- KEYS[2] : 可选，商品限购的key，Hash结构，field为用户id，value为用户已购数量
 -- ARGV[1] : 活动库存的扣减数量
+-- ARGV[2] : 可选，用户id
+-- ARGV[3] : 可选，每个用户的限购数量
+-- ARGV[4] : 可选，商品限购的key的过期时间戳，单位毫秒
 local stock = redis.call('get', KEYS[1])
 
 -- 商品库存不存在
@@ -18,12 +23,31 @@ if paramStock <= 0 then
     return -2
 end
 
+-- 库存已售罄，售罄标识以脚本内读取到的库存为准
+if intStock <= 0 then
+    return -5
+end
+
 -- 库存不足
 if intStock < paramStock then
     return -3
 end
 
+-- 超过限购数量
+local limitKey = KEYS[2]
+if limitKey then
+    local purchased = tonumber(redis.call('hget', limitKey, ARGV[2]) or 0)
+    if purchased + paramStock > tonumber(ARGV[3]) then
+        return -4
+    end
+    redis.call('hincrby', limitKey, ARGV[2], paramStock)
+    -- 首次写入时按照活动结束时间设置过期时间
+    if ARGV[4] and redis.call('pttl', limitKey) == -1 then
+        redis.call('pexpireat', limitKey, ARGV[4])
+    end
+end
+
 -- 正常扣减库存
 redis.call('decrby',KEYS[1], paramStock)
 
-return 1
\ No newline at end of file
+return 1
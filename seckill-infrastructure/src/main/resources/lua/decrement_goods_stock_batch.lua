@@ -0,0 +1,43 @@
+-- lua逻辑：原子扣减多个商品的库存，先检查全部商品，有任意商品失败则不扣减任何库存，返回每个商品的结果
+-- 每个商品的结果：库存不存在返回-1，扣减数量不大于0返回-2，库存不足返回-3，可以扣减返回1
+-- 入参：
+-- KEYS[i] : 第i个商品库存的key
+-- ARGV[i] : 第i个商品库存的扣减数量
+local results = {}
+local success = true
+-- 同一个商品出现多次时累计扣减数量
+local requested = {}
+
+if #KEYS ~= #ARGV then
+    return redis.error_reply('keys and quantities size mismatch')
+end
+
+for i = 1, #KEYS do
+    local stock = redis.call('get', KEYS[i])
+    local paramStock = tonumber(ARGV[i])
+    if not stock then
+        results[i] = -1
+    elseif paramStock <= 0 then
+        results[i] = -2
+    else
+        local total = (requested[KEYS[i]] or 0) + paramStock
+        requested[KEYS[i]] = total
+        if tonumber(stock) < total then
+            results[i] = -3
+        else
+            results[i] = 1
+        end
+    end
+    if results[i] ~= 1 then
+        success = false
+    end
+end
+
+-- 全部商品都可以扣减时才扣减库存
+if success then
+    for i = 1, #KEYS do
+        redis.call('decrby', KEYS[i], tonumber(ARGV[i]))
+    end
+end
+
+return results
@@ -1,7 +1,10 @@
--- lua逻辑：首先判断活动库存是否存在，如果不存在，则返回-1，如果传入的要扣减的库存数量小于或者等于0，则返回-2，增加库存成功，则返回1
--- 两个入参：
+-- lua逻辑：首先判断活动库存是否存在，如果不存在，则返回-1，如果传入的要扣减的库存数量小于或者等于0，则返回-2，增加库存成功，则返回增加后的库存
+-- 传入限购信息时，同时扣减用户已购数量
+-- 入参：
 -- KEYS[1] : 活动库存的key
+-- KEYS[2] : 可选，商品限购的key，Hash结构，field为用户id，value为用户已购数量
 -- ARGV[1] : 活动库存的增加数量
+-- ARGV[2] : 可选，用户id
 local stock = redis.call('get', KEYS[1])
 
 -- 商品库存不存在
@@ -16,5 +19,13 @@ if paramStock <= 0 then
     return -2
 end
 
-redis.call('incrby',KEYS[1], paramStock)
-return 1
\ No newline at end of file
+-- 归还用户已购数量
+local limitKey = KEYS[2]
+if limitKey then
+    local purchased = redis.call('hincrby', limitKey, ARGV[2], -paramStock)
+    if purchased <= 0 then
+        redis.call('hdel', limitKey, ARGV[2])
+    end
+end
+
+return redis.call('incrby',KEYS[1], paramStock)
@@ -0,0 +1,34 @@
+-- lua逻辑：批量租借活动库存到本地，首先判断活动库存是否存在，如果库存不存在则返回-1，接下来判断传入的要租借的库存是否大于0，如果不大于0，则返回-2，库存已售罄返回-3，租借成功返回实际租借到的库存数量
+-- 两个入参：
+-- KEYS[1] : 活动库存的key
+-- ARGV[1] : 期望租借的库存数量，剩余库存不足时租借全部剩余库存
+local stock = redis.call('get', KEYS[1])
+
+-- 商品库存不存在
+if not stock then
+    return -1
+end
+
+-- 获取Redis库存和租借的库存数量
+local intStock = tonumber(stock)
+local paramStock = tonumber(ARGV[1])
+
+-- 参数不能小于或者等于0
+if paramStock <= 0 then
+    return -2
+end
+
+-- 库存已售罄
+if intStock <= 0 then
+    return -3
+end
+
+-- 剩余库存不足时租借全部剩余库存
+local leaseStock = paramStock
+if intStock < paramStock then
+    leaseStock = intStock
+end
+
+redis.call('decrby',KEYS[1], leaseStock)
+
+return leaseStock
@@ -0,0 +1,10 @@
+-- lua逻辑：下单失败时归还用户已购数量，已购数量小于或者等于0时删除用户的记录，返回1
+-- 入参：
+-- KEYS[1] : 商品限购的key，Hash结构，field为用户id，value为用户已购数量
+-- ARGV[1] : 用户id
+-- ARGV[2] : 归还的数量
+local purchased = redis.call('hincrby', KEYS[1], ARGV[1], -tonumber(ARGV[2]))
+if purchased <= 0 then
+    redis.call('hdel', KEYS[1], ARGV[1])
+end
+return 1
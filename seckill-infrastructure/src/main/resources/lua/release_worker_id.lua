@@ -0,0 +1,10 @@
+-- lua逻辑：释放机器id，只有当前节点持有该机器id时才将过期时间缩短为保留时间，不直接删除，
+-- 保证当前节点借用的未来时间戳过去之后其他节点才能占用该机器id，释放成功返回1，否则返回0
+-- 两个入参：
+-- KEYS[1] : 机器id的key
+-- ARGV[1] : 当前节点的标识
+-- ARGV[2] : 保留时间，单位毫秒
+if redis.call('get', KEYS[1]) == ARGV[1] then
+    return redis.call('pexpire', KEYS[1], ARGV[2])
+end
+return 0
\ No newline at end of file
@@ -0,0 +1,9 @@
+-- lua逻辑：续约机器id，只有当前节点持有该机器id时才更新过期时间，续约成功返回1，否则返回0
+-- 两个入参：
+-- KEYS[1] : 机器id的key
+-- ARGV[1] : 当前节点的标识
+-- ARGV[2] : 过期时间，单位毫秒
+if redis.call('get', KEYS[1]) == ARGV[1] then
+    return redis.call('pexpire', KEYS[1], ARGV[2])
+end
+return 0
\ No newline at end of file
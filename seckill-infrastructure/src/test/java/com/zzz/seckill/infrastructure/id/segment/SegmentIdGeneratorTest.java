@@ -0,0 +1,117 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.id.segment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 号段模式ID生成器测试，多线程切换号段时ID不重复，预取号段失败时仍能切换到新的号段
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SegmentIdGeneratorTest {
+    private static final String BIZ_TAG = "seckill_order";
+    private static final int STEP = 100;
+    private static final int THREAD_COUNT = 8;
+    private static final int ID_COUNT_PER_THREAD = 20000;
+
+    @Test
+    public void idsAreUniqueAcrossSegmentSwitch() throws Exception {
+        CountingSegmentAllocator segmentAllocator = new CountingSegmentAllocator(0);
+        SegmentIdGenerator idGenerator = new SegmentIdGenerator(segmentAllocator, BIZ_TAG, STEP);
+
+        Set<Long> ids = this.generateConcurrently(idGenerator);
+
+        assertEquals(THREAD_COUNT * ID_COUNT_PER_THREAD, ids.size());
+        //每个号段只预取一次，最多只有最后预取的一个号段没有使用
+        assertTrue(segmentAllocator.maxId.get() - THREAD_COUNT * ID_COUNT_PER_THREAD <= STEP);
+    }
+
+    @Test
+    public void failedPrefetchFallsBackToSynchronousLoad() throws Exception {
+        //每隔一次预取失败一次
+        CountingSegmentAllocator segmentAllocator = new CountingSegmentAllocator(2);
+        SegmentIdGenerator idGenerator = new SegmentIdGenerator(segmentAllocator, BIZ_TAG, STEP);
+
+        Set<Long> ids = this.generateConcurrently(idGenerator);
+
+        assertEquals(THREAD_COUNT * ID_COUNT_PER_THREAD, ids.size());
+        assertTrue(segmentAllocator.failedCount.get() > 0);
+    }
+
+    private Set<Long> generateConcurrently(SegmentIdGenerator idGenerator) throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++){
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                for (int j = 0; j < ID_COUNT_PER_THREAD; j++){
+                    ids.add(idGenerator.nextId());
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures){
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        return ids;
+    }
+
+    /**
+     * 内存中的号段分配器，可以按照调用次数模拟分配失败
+     */
+    private static class CountingSegmentAllocator implements SegmentAllocator {
+        private final int failInterval;
+        private final AtomicLong maxId = new AtomicLong();
+        private final AtomicInteger callCount = new AtomicInteger();
+        private final AtomicInteger failedCount = new AtomicInteger();
+
+        CountingSegmentAllocator(int failInterval) {
+            this.failInterval = failInterval;
+        }
+
+        @Override
+        public long allocate(String bizTag, int step) {
+            //首次分配在构造方法中执行，不模拟失败
+            if (failInterval > 0 && callCount.incrementAndGet() % failInterval == 0){
+                failedCount.incrementAndGet();
+                throw new IllegalStateException("allocate segment failed");
+            }
+            return maxId.addAndGet(step);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.id.worker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 基于机器id注册中心的雪花算法测试，生成ID的过程中机器id切换后再切换回来，ID仍然不重复
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class WorkerIdSnowFlakeGeneratorTest {
+    private static final int THREAD_COUNT = 8;
+    private static final int ID_COUNT_PER_THREAD = 50000;
+    /**
+     * 使用测试专用的机器id，避免和其他测试共用缓存中的雪花算法
+     */
+    private static final long[] WORKER_IDS = {1001L, 1002L, 1001L, 1003L};
+
+    @Test
+    public void idsAreUniqueAcrossWorkerIdSwitch() throws Exception {
+        SwitchableWorkerIdRegistry workerIdRegistry = new SwitchableWorkerIdRegistry();
+        WorkerIdSnowFlakeGenerator idGenerator = new WorkerIdSnowFlakeGenerator(workerIdRegistry);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger generatedCount = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++){
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                for (int j = 0; j < ID_COUNT_PER_THREAD; j++){
+                    ids.add(idGenerator.nextId());
+                    //生成ID的过程中切换机器id，包括切换回已经使用过的机器id
+                    if (generatedCount.incrementAndGet() % 20000 == 0){
+                        workerIdRegistry.switchWorkerId();
+                    }
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures){
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        assertEquals(THREAD_COUNT * ID_COUNT_PER_THREAD, ids.size());
+    }
+
+    /**
+     * 可以在测试中切换机器id的注册中心
+     */
+    private static class SwitchableWorkerIdRegistry implements WorkerIdRegistry {
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public long getWorkerId() {
+            return WORKER_IDS[index.get() % WORKER_IDS.length];
+        }
+
+        void switchWorkerId(){
+            index.incrementAndGet();
+        }
+    }
+}
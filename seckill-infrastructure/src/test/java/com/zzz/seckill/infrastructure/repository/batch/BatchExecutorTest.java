@@ -0,0 +1,155 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.repository.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 批量执行器测试，覆盖等待超时后撤回请求和请求已经开始执行时等待真实结果两种情况
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class BatchExecutorTest {
+
+    private final ExecutorService callerExecutor = Executors.newCachedThreadPool();
+    private BlockingBatchExecutor batchExecutor;
+
+    @AfterEach
+    public void tearDown(){
+        if (batchExecutor != null){
+            batchExecutor.release.countDown();
+            batchExecutor.shutdown();
+        }
+        callerExecutor.shutdownNow();
+    }
+
+    @Test
+    public void withdrawnRequestIsNotExecutedAfterTimeout() throws Exception {
+        batchExecutor = new BlockingBatchExecutor("first");
+        batchExecutor.start();
+        //第一个请求占住执行线程，第二个请求只能留在队列中
+        Future<Boolean> first = callerExecutor.submit(() -> batchExecutor.execute("first", 10000));
+        assertTrue(batchExecutor.started.await(5, TimeUnit.SECONDS));
+
+        assertNull(batchExecutor.execute("second", 100));
+
+        batchExecutor.release.countDown();
+        assertEquals(Boolean.TRUE, first.get(5, TimeUnit.SECONDS));
+        batchExecutor.shutdown();
+        //撤回的请求不会再被执行，调用方可以自行执行而不会重复
+        assertEquals(1, batchExecutor.executedData.size());
+        assertFalse(batchExecutor.executedData.contains("second"));
+    }
+
+    @Test
+    public void startedRequestWaitsForRealResultAfterTimeout() throws Exception {
+        batchExecutor = new BlockingBatchExecutor("first");
+        batchExecutor.start();
+        Future<Boolean> first = callerExecutor.submit(() -> batchExecutor.execute("first", 50));
+        assertTrue(batchExecutor.started.await(5, TimeUnit.SECONDS));
+        //等待时间已经超过超时时间，请求已经开始执行，调用方不能拿到null
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertFalse(first.isDone());
+
+        batchExecutor.release.countDown();
+        assertEquals(Boolean.TRUE, first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void startedRequestWaitsForRealResultAfterInterrupt() throws Exception {
+        batchExecutor = new BlockingBatchExecutor("first");
+        batchExecutor.start();
+        AtomicReference<Boolean> result = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        Thread caller = new Thread(() -> {
+            try {
+                result.set(batchExecutor.execute("first", 10000));
+                //等待真实结果后恢复中断状态
+                interrupted.set(Thread.currentThread().isInterrupted());
+            } catch (Exception e) {
+                result.set(null);
+            }
+        });
+        caller.start();
+        assertTrue(batchExecutor.started.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertTrue(caller.isAlive());
+
+        batchExecutor.release.countDown();
+        caller.join(5000);
+        assertEquals(Boolean.TRUE, result.get());
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    public void stoppedExecutorReturnsNull() throws Exception {
+        batchExecutor = new BlockingBatchExecutor(null);
+        batchExecutor.start();
+        batchExecutor.shutdown();
+        assertNull(batchExecutor.execute("first", 100));
+        assertTrue(batchExecutor.executedData.isEmpty());
+    }
+
+    /**
+     * 每批只执行一个请求，执行指定的请求时阻塞，直到测试放行
+     */
+    private static class BlockingBatchExecutor extends BatchExecutor<String> {
+        private final String blockingData;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> executedData = new CopyOnWriteArrayList<>();
+
+        BlockingBatchExecutor(String blockingData) {
+            super("batch.executor.test", 16, 1, 0);
+            this.blockingData = blockingData;
+        }
+
+        @Override
+        protected void executeBatch(List<BatchRequest<String>> requests) {
+            for (BatchRequest<String> request : requests){
+                executedData.add(request.getData());
+                if (request.getData().equals(blockingData)){
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                request.getFuture().complete(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.repository.batch;
+
+import com.zzz.seckill.infrastructure.mapper.SeckillGoodsMapper;
+import com.zzz.seckill.infrastructure.repository.batch.SeckillGoodsStockMergeExecutor.StockDeduction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 商品库存合并扣减测试，合并扣减失败时每个扣减请求得到自己的扣减结果
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SeckillGoodsStockMergeExecutorTest {
+
+    @Test
+    public void mergedDeductionCompletesAllRequests() throws Exception {
+        SeckillGoodsMapper seckillGoodsMapper = mock(SeckillGoodsMapper.class);
+        when(seckillGoodsMapper.updateAvailableStock(3, 1L)).thenReturn(1);
+        SeckillGoodsStockMergeExecutor mergeExecutor = new SeckillGoodsStockMergeExecutor(seckillGoodsMapper, 16, 16, 0);
+        BatchExecutor.BatchRequest<StockDeduction> first = new BatchExecutor.BatchRequest<>(new StockDeduction(1, 1L));
+        BatchExecutor.BatchRequest<StockDeduction> second = new BatchExecutor.BatchRequest<>(new StockDeduction(2, 1L));
+
+        mergeExecutor.executeBatch(Arrays.asList(first, second));
+
+        assertTrue(first.getFuture().get());
+        assertTrue(second.getFuture().get());
+        verify(seckillGoodsMapper).updateAvailableStock(3, 1L);
+    }
+
+    @Test
+    public void insufficientStockIsGrantedInRequestOrder() throws Exception {
+        SeckillGoodsMapper seckillGoodsMapper = mock(SeckillGoodsMapper.class);
+        when(seckillGoodsMapper.updateAvailableStock(5, 1L)).thenReturn(0);
+        when(seckillGoodsMapper.getAvailableStockById(1L)).thenReturn(3);
+        when(seckillGoodsMapper.updateAvailableStock(3, 1L)).thenReturn(1);
+        SeckillGoodsStockMergeExecutor mergeExecutor = new SeckillGoodsStockMergeExecutor(seckillGoodsMapper, 16, 16, 0);
+        BatchExecutor.BatchRequest<StockDeduction> first = new BatchExecutor.BatchRequest<>(new StockDeduction(2, 1L));
+        BatchExecutor.BatchRequest<StockDeduction> second = new BatchExecutor.BatchRequest<>(new StockDeduction(2, 1L));
+        BatchExecutor.BatchRequest<StockDeduction> third = new BatchExecutor.BatchRequest<>(new StockDeduction(1, 1L));
+
+        mergeExecutor.executeBatch(Arrays.asList(first, second, third));
+
+        assertTrue(first.getFuture().get());
+        assertFalse(second.getFuture().get());
+        assertTrue(third.getFuture().get());
+    }
+
+    @Test
+    public void concurrentStockChangeFallsBackToPerRequestDeduction() throws Exception {
+        SeckillGoodsMapper seckillGoodsMapper = mock(SeckillGoodsMapper.class);
+        when(seckillGoodsMapper.updateAvailableStock(2, 1L)).thenReturn(0);
+        when(seckillGoodsMapper.getAvailableStockById(1L)).thenReturn(2);
+        when(seckillGoodsMapper.updateAvailableStock(1, 1L)).thenReturn(1).thenReturn(0);
+        SeckillGoodsStockMergeExecutor mergeExecutor = new SeckillGoodsStockMergeExecutor(seckillGoodsMapper, 16, 16, 0);
+        BatchExecutor.BatchRequest<StockDeduction> first = new BatchExecutor.BatchRequest<>(new StockDeduction(1, 1L));
+        BatchExecutor.BatchRequest<StockDeduction> second = new BatchExecutor.BatchRequest<>(new StockDeduction(1, 1L));
+
+        mergeExecutor.executeBatch(Arrays.asList(first, second));
+
+        assertTrue(first.getFuture().get());
+        assertFalse(second.getFuture().get());
+    }
+
+    @Test
+    public void failureOfOneGoodsDoesNotAffectOtherGoods() throws Exception {
+        SeckillGoodsMapper seckillGoodsMapper = mock(SeckillGoodsMapper.class);
+        when(seckillGoodsMapper.updateAvailableStock(1, 1L)).thenReturn(1);
+        when(seckillGoodsMapper.updateAvailableStock(1, 2L)).thenThrow(new IllegalStateException("lock wait timeout"));
+        SeckillGoodsStockMergeExecutor mergeExecutor = new SeckillGoodsStockMergeExecutor(seckillGoodsMapper, 16, 16, 0);
+        BatchExecutor.BatchRequest<StockDeduction> succeeded = new BatchExecutor.BatchRequest<>(new StockDeduction(1, 1L));
+        BatchExecutor.BatchRequest<StockDeduction> failed = new BatchExecutor.BatchRequest<>(new StockDeduction(1, 2L));
+
+        mergeExecutor.executeBatch(Arrays.asList(succeeded, failed));
+
+        assertTrue(succeeded.getFuture().get());
+        assertThrows(ExecutionException.class, () -> failed.getFuture().get());
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.repository.batch;
+
+import com.zzz.seckill.domain.model.entity.SeckillOrder;
+import com.zzz.seckill.infrastructure.mapper.SeckillOrderMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 订单批量写入测试，批量写入失败时每个订单得到自己的写入结果
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SeckillOrderBatchExecutorTest {
+
+    @Test
+    public void batchSuccessCompletesAllRequests() throws Exception {
+        SeckillOrderMapper seckillOrderMapper = mock(SeckillOrderMapper.class);
+        when(seckillOrderMapper.saveSeckillOrderBatch(anyList())).thenReturn(2);
+        SeckillOrderBatchExecutor batchExecutor = new SeckillOrderBatchExecutor(seckillOrderMapper, 16, 16, 0);
+        BatchExecutor.BatchRequest<SeckillOrder> first = new BatchExecutor.BatchRequest<>(this.buildOrder(1L));
+        BatchExecutor.BatchRequest<SeckillOrder> second = new BatchExecutor.BatchRequest<>(this.buildOrder(2L));
+
+        batchExecutor.executeBatch(Arrays.asList(first, second));
+
+        assertTrue(first.getFuture().get());
+        assertTrue(second.getFuture().get());
+        verify(seckillOrderMapper, never()).saveSeckillOrder(first.getData());
+    }
+
+    @Test
+    public void batchFailureFallsBackToPerOrderResults() throws Exception {
+        SeckillOrderMapper seckillOrderMapper = mock(SeckillOrderMapper.class);
+        SeckillOrder savedOrder = this.buildOrder(1L);
+        SeckillOrder ignoredOrder = this.buildOrder(2L);
+        SeckillOrder failedOrder = this.buildOrder(3L);
+        when(seckillOrderMapper.saveSeckillOrderBatch(anyList())).thenThrow(new IllegalStateException("duplicate key"));
+        when(seckillOrderMapper.saveSeckillOrder(savedOrder)).thenReturn(1);
+        when(seckillOrderMapper.saveSeckillOrder(ignoredOrder)).thenReturn(0);
+        when(seckillOrderMapper.saveSeckillOrder(failedOrder)).thenThrow(new IllegalStateException("duplicate key"));
+        SeckillOrderBatchExecutor batchExecutor = new SeckillOrderBatchExecutor(seckillOrderMapper, 16, 16, 0);
+        BatchExecutor.BatchRequest<SeckillOrder> saved = new BatchExecutor.BatchRequest<>(savedOrder);
+        BatchExecutor.BatchRequest<SeckillOrder> ignored = new BatchExecutor.BatchRequest<>(ignoredOrder);
+        BatchExecutor.BatchRequest<SeckillOrder> failed = new BatchExecutor.BatchRequest<>(failedOrder);
+
+        batchExecutor.executeBatch(Arrays.asList(saved, ignored, failed));
+
+        assertTrue(saved.getFuture().get());
+        assertFalse(ignored.getFuture().get());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.getFuture().get());
+        assertEquals("duplicate key", e.getCause().getMessage());
+    }
+
+    private SeckillOrder buildOrder(Long id){
+        SeckillOrder seckillOrder = new SeckillOrder();
+        seckillOrder.setId(id);
+        return seckillOrder;
+    }
+}
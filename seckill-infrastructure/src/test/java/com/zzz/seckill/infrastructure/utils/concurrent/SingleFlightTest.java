@@ -0,0 +1,117 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.utils.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 请求合并测试，同一个key的并发加载只执行一次，加载异常传递给所有等待的线程
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SingleFlightTest {
+    private static final int THREAD_COUNT = 8;
+    private static final String KEY = "goods:1";
+
+    @Test
+    public void concurrentLoadsOfSameKeyExecuteOnce() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        Future<String> leader = executorService.submit(() -> singleFlight.execute(KEY, () -> {
+            loadCount.incrementAndGet();
+            loading.countDown();
+            this.await(release);
+            return "value";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 1; i < THREAD_COUNT; i++){
+            followers.add(executorService.submit(() -> singleFlight.execute(KEY, () -> {
+                loadCount.incrementAndGet();
+                return "other";
+            })));
+        }
+        //等待其他线程进入等待状态后再完成加载
+        TimeUnit.MILLISECONDS.sleep(200);
+        release.countDown();
+
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers){
+            assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loadCount.get());
+        executorService.shutdown();
+    }
+
+    @Test
+    public void loadFailureIsPropagatedToWaiters() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        Future<String> leader = executorService.submit(() -> singleFlight.execute(KEY, () -> {
+            loading.countDown();
+            this.await(release);
+            throw new IllegalStateException("load failed");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executorService.submit(() -> singleFlight.execute(KEY, () -> "other"));
+        TimeUnit.MILLISECONDS.sleep(200);
+        release.countDown();
+
+        ExecutionException leaderException = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertTrue(leaderException.getCause() instanceof IllegalStateException);
+        ExecutionException followerException = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(followerException.getCause() instanceof IllegalStateException);
+        executorService.shutdown();
+    }
+
+    @Test
+    public void keyIsReloadedAfterCompletion() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loadCount = new AtomicInteger();
+        assertEquals(1, singleFlight.execute(KEY, loadCount::incrementAndGet));
+        //加载完成后不缓存结果，下一次调用重新加载
+        assertEquals(2, singleFlight.execute(KEY, loadCount::incrementAndGet));
+    }
+
+    private void await(CountDownLatch latch){
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
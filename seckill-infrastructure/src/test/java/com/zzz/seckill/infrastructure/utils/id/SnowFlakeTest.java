@@ -0,0 +1,92 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.infrastructure.utils.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 雪花算法测试，多线程单个生成和批量生成的ID不重复并且单线程内递增
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SnowFlakeTest {
+    private static final int THREAD_COUNT = 8;
+    private static final int ID_COUNT_PER_THREAD = 50000;
+    private static final int BATCH_SIZE = 100;
+
+    @Test
+    public void idsAreUniqueAcrossThreads() throws Exception {
+        SnowFlake snowFlake = new SnowFlake(1, 1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++){
+            //一半线程单个生成，一半线程批量生成，两者共用同一个状态
+            boolean batch = i % 2 == 0;
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                long lastId = 0;
+                for (int j = 0; j < ID_COUNT_PER_THREAD; j += BATCH_SIZE){
+                    long[] batchIds = batch ? snowFlake.nextIds(BATCH_SIZE) : this.nextIds(snowFlake, BATCH_SIZE);
+                    for (long id : batchIds){
+                        assertTrue(id > lastId);
+                        lastId = id;
+                        ids.add(id);
+                    }
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures){
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        assertEquals(THREAD_COUNT * ID_COUNT_PER_THREAD, ids.size());
+    }
+
+    @Test
+    public void invalidBatchCountIsRejected() {
+        SnowFlake snowFlake = new SnowFlake(1, 1);
+        assertThrows(IllegalArgumentException.class, () -> snowFlake.nextIds(0));
+        assertThrows(IllegalArgumentException.class, () -> snowFlake.nextIds(Integer.MAX_VALUE));
+    }
+
+    private long[] nextIds(SnowFlake snowFlake, int count){
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++){
+            ids[i] = snowFlake.nextId();
+        }
+        return ids;
+    }
+}
@@ -21,10 +21,13 @@ import com.zzz.seckill.domain.model.dto.SeckillActivityDTO;
 import com.zzz.seckill.domain.response.ResponseMessage;
 import com.zzz.seckill.domain.response.ResponseMessageBuilder;
 import com.zzz.seckill.infrastructure.utils.date.JodaDateTimeUtils;
+import com.zzz.seckill.interfaces.response.EncodedResponseBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.zzz.seckill.domain.model.entity.SeckillActivity;
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 
 /**
@@ -61,9 +64,10 @@ public class SeckillActivityController {
      * 获取秒杀活动列表(使用缓存机制)
      */
     @RequestMapping(value = "/seckillActivityList", method = {RequestMethod.GET,RequestMethod.POST})
-    public ResponseMessage<List<SeckillActivityDTO>> getSeckillActivityList(@RequestParam(value = "status", required = false) Integer status,
-                                                                            @RequestParam(value = "version", required = false) Long version){
-        return ResponseMessageBuilder.build(HttpCode.SUCCESS.getCode(), seckillActivityService.getSeckillActivityList(status, version));
+    public ResponseEntity<byte[]> getSeckillActivityList(@RequestParam(value = "status", required = false) Integer status,
+                                                         @RequestParam(value = "version", required = false) Long version,
+                                                         HttpServletRequest request){
+        return EncodedResponseBuilder.build(seckillActivityService.getSeckillActivityListResponse(status, version), request);
     }
 
     /**
@@ -88,9 +92,10 @@ public class SeckillActivityController {
      * 获取id获取秒杀活动详情(使用缓存)
      */
     @RequestMapping(value = "/seckillActivity", method = {RequestMethod.GET,RequestMethod.POST})
-    public ResponseMessage<SeckillActivity> getSeckillActivityById(@RequestParam(value = "id", required = false) Long id,
-                                                                   @RequestParam(value = "version", required = false) Long version){
-        return ResponseMessageBuilder.build(HttpCode.SUCCESS.getCode(), seckillActivityService.getSeckillActivityById(id, version));
+    public ResponseEntity<byte[]> getSeckillActivityById(@RequestParam(value = "id", required = false) Long id,
+                                                         @RequestParam(value = "version", required = false) Long version,
+                                                         HttpServletRequest request){
+        return EncodedResponseBuilder.build(seckillActivityService.getSeckillActivityResponse(id, version), request);
     }
 
     /**
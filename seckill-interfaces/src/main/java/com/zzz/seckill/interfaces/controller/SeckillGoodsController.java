@@ -18,15 +18,17 @@ package com.zzz.seckill.interfaces.controller;
 import com.zzz.seckill.application.command.SeckillGoodsCommond;
 import com.zzz.seckill.application.service.SeckillGoodsService;
 import com.zzz.seckill.domain.code.HttpCode;
-import com.zzz.seckill.domain.model.dto.SeckillGoodsDTO;
 import com.zzz.seckill.domain.model.entity.SeckillGoods;
 import com.zzz.seckill.domain.response.ResponseMessage;
 import com.zzz.seckill.domain.response.ResponseMessageBuilder;
+import com.zzz.seckill.interfaces.response.EncodedResponseBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 
 /**
@@ -81,15 +83,15 @@ public class SeckillGoodsController {
      * 获取商品列表(带缓存)
      */
     @RequestMapping(value = "/getSeckillGoodsList", method = {RequestMethod.GET,RequestMethod.POST})
-    public ResponseMessage<List<SeckillGoodsDTO>> getSeckillGoodsByActivityId(Long activityId, Long version){
-        return ResponseMessageBuilder.build(HttpCode.SUCCESS.getCode(), seckillGoodsService.getSeckillGoodsList(activityId, version));
+    public ResponseEntity<byte[]> getSeckillGoodsByActivityId(Long activityId, Long version, HttpServletRequest request){
+        return EncodedResponseBuilder.build(seckillGoodsService.getSeckillGoodsListResponse(activityId, version), request);
     }
 
     /**
      * 获取商品详情（带缓存）
      */
     @RequestMapping(value = "/getSeckillGoods", method = {RequestMethod.GET,RequestMethod.POST})
-    public ResponseMessage<SeckillGoodsDTO> getSeckillGoods(Long id, Long version){
-        return ResponseMessageBuilder.build(HttpCode.SUCCESS.getCode(), seckillGoodsService.getSeckillGoods(id, version));
+    public ResponseEntity<byte[]> getSeckillGoods(Long id, Long version, HttpServletRequest request){
+        return EncodedResponseBuilder.build(seckillGoodsService.getSeckillGoodsResponse(id, version), request);
     }
 }
@@ -44,13 +44,31 @@ public class SeckillOrderController {
     private SeckillOrderService seckillOrderService;
 
     /**
-     * 保存秒杀订单
+     * 获取下单令牌
+     */
+    @RequestMapping(value = "/getOrderToken", method = {RequestMethod.GET,RequestMethod.POST})
+    public ResponseMessage<String> getOrderToken(@RequestAttribute Long userId){
+        String orderToken = seckillOrderService.getOrderToken(userId);
+        return ResponseMessageBuilder.build(HttpCode.SUCCESS.getCode(), orderToken);
+    }
+
+    /**
+     * 保存秒杀订单，携带下单令牌时重复提交返回首次下单结果
      */
     @RequestMapping(value = "/saveSeckillOrder", method = {RequestMethod.GET,RequestMethod.POST})
     public ResponseMessage<Long> saveSeckillOrder(@RequestAttribute Long userId, SeckillOrderCommand seckillOrderCommand){
         Long orderId = seckillOrderService.saveSeckillOrder(userId, seckillOrderCommand);
         return ResponseMessageBuilder.build(HttpCode.SUCCESS.getCode(), orderId);
     }
+
+    /**
+     * 根据下单凭证查询下单结果
+     */
+    @RequestMapping(value = "/getSeckillOrderResult", method = {RequestMethod.GET,RequestMethod.POST})
+    public ResponseMessage<Long> getSeckillOrderResult(@RequestAttribute Long userId, Long ticket){
+        Long orderId = seckillOrderService.getSeckillOrderResult(userId, ticket);
+        return ResponseMessageBuilder.build(HttpCode.SUCCESS.getCode(), orderId);
+    }
     /**
      * 获取用户维度的订单列表
      */
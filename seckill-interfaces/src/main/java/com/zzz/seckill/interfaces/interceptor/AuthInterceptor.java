@@ -15,6 +15,10 @@
  */
 package com.zzz.seckill.interfaces.interceptor;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.zzz.seckill.domain.code.HttpCode;
 import com.zzz.seckill.domain.constants.SeckillConstants;
 import com.zzz.seckill.domain.exception.SeckillException;
@@ -26,6 +30,8 @@ import org.springframework.web.servlet.HandlerInterceptor;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 import javax.servlet.http.HttpServletResponse;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author binghe(微信 : hacker_binghe)
@@ -37,6 +43,31 @@ import javax.servlet.http.HttpServletResponse;
 @Component
 public class AuthInterceptor implements HandlerInterceptor {
     private static final String USER_ID = "userId";
+    //校验通过的token缓存的最大条目数
+    private static final long VERIFIED_TOKEN_MAXIMUM_SIZE = 100000;
+
+    /**
+     * 校验通过的token，按照token自身的过期时间过期，每个token只解析和校验签名一次
+     */
+    private final Cache<String, VerifiedToken> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_MAXIMUM_SIZE)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String token, VerifiedToken verifiedToken, long currentTime) {
+                    return verifiedToken.getRemainingNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                    return verifiedToken.getRemainingNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -48,7 +79,7 @@ public class AuthInterceptor implements HandlerInterceptor {
         if (StringUtils.isEmpty(token)){
             throw new SeckillException(HttpCode.USER_NOT_LOGIN);
         }
-        Long userId = JwtUtils.getUserId(token);
+        Long userId = this.getUserId(token);
         if (userId == null){
             throw new SeckillException(HttpCode.USER_NOT_LOGIN);
         }
@@ -56,4 +87,49 @@ public class AuthInterceptor implements HandlerInterceptor {
         authRequestWrapper.setAttribute(USER_ID, userId);
         return true;
     }
+
+    /**
+     * 优先从缓存获取用户id，未命中时校验token的签名和过期时间，校验失败的token不缓存
+     */
+    private Long getUserId(String token){
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(token);
+        if (verifiedToken != null){
+            return verifiedToken.getUserId();
+        }
+        DecodedJWT jwt = JwtUtils.verifyAndDecode(token);
+        if (jwt == null){
+            return null;
+        }
+        Long userId = jwt.getClaim(SeckillConstants.TOKEN_CLAIM).asLong();
+        if (userId == null){
+            return null;
+        }
+        //未设置过期时间的token按照默认的token过期时间缓存
+        Date expiresAt = jwt.getExpiresAt();
+        long expireTime = expiresAt == null ? System.currentTimeMillis() + SeckillConstants.TOKEN_EXPIRE_TIME : expiresAt.getTime();
+        verifiedTokens.put(token, new VerifiedToken(userId, expireTime));
+        return userId;
+    }
+
+    /**
+     * 校验通过的token
+     */
+    private static class VerifiedToken {
+        private final Long userId;
+        //过期时间戳，单位毫秒
+        private final long expireTime;
+
+        VerifiedToken(Long userId, long expireTime) {
+            this.userId = userId;
+            this.expireTime = expireTime;
+        }
+
+        Long getUserId() {
+            return userId;
+        }
+
+        long getRemainingNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(expireTime - System.currentTimeMillis(), 0));
+        }
+    }
 }
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.interfaces.response;
+
+import com.zzz.seckill.application.cache.model.SeckillEncodedResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 将编码后的响应数据直接写回客户端，客户端支持gzip时返回压缩后的数据
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class EncodedResponseBuilder {
+
+    private static final String GZIP = "gzip";
+
+    public static ResponseEntity<byte[]> build(SeckillEncodedResponse encodedResponse, HttpServletRequest request){
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (encodedResponse.getGzipBody() != null && acceptGzip(request)){
+            headers.add(HttpHeaders.CONTENT_ENCODING, GZIP);
+            return new ResponseEntity<>(encodedResponse.getGzipBody(), headers, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(encodedResponse.getBody(), headers, HttpStatus.OK);
+    }
+
+    private static boolean acceptGzip(HttpServletRequest request){
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains(GZIP);
+    }
+}
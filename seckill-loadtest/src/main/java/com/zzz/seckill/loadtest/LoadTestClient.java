@@ -0,0 +1,86 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.loadtest;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.zzz.seckill.domain.constants.SeckillConstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 压测HTTP客户端，只依赖JDK，避免客户端开销掩盖服务端差异
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class LoadTestClient {
+    /**
+     * 网络错误、非200状态或响应无法解析时记录的业务码
+     */
+    public static final int CODE_ERROR = -1;
+
+    private final String baseUrl;
+    private final int timeout;
+
+    public LoadTestClient(String baseUrl, int timeout) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    /**
+     * 发送GET请求，返回响应中的业务码
+     */
+    public int get(String path, String token){
+        try{
+            //读完响应体且不调用disconnect，keep-alive连接可以复用
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+            connection.setRequestProperty(SeckillConstants.TOKEN_HEADER_NAME, token);
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK){
+                drain(connection.getErrorStream());
+                return CODE_ERROR;
+            }
+            JSONObject body = JSON.parseObject(new String(drain(connection.getInputStream()), StandardCharsets.UTF_8));
+            Integer code = body == null ? null : body.getInteger("code");
+            return code == null ? CODE_ERROR : code;
+        }catch (Exception e){
+            return CODE_ERROR;
+        }
+    }
+
+    private byte[] drain(InputStream inputStream) throws IOException {
+        if (inputStream == null){
+            return new byte[0];
+        }
+        try (InputStream in = inputStream){
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            byte[] buffer = new byte[1024];
+            int len;
+            while ((len = in.read(buffer)) != -1){
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 压测参数，通过-Dloadtest.xxx覆盖默认值
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class LoadTestConfig {
+    /**
+     * 需要对比的下单策略，对应place.order.type
+     */
+    private final List<String> strategies;
+    /**
+     * 虚拟用户数，每个用户下一次单
+     */
+    private final int users;
+    /**
+     * 并发线程数
+     */
+    private final int threads;
+    /**
+     * 商品初始库存
+     */
+    private final int stock;
+    /**
+     * 每单购买数量
+     */
+    private final int quantity;
+    /**
+     * 每个用户下单前浏览商品详情的次数
+     */
+    private final int browseCount;
+    /**
+     * 外部Redis地址，为空时启动内嵌Redis
+     */
+    private final String redisHost;
+    private final int redisPort;
+    /**
+     * HTTP超时时间，毫秒
+     */
+    private final int httpTimeout;
+    /**
+     * 压测结束后等待异步下单、批量落库完成的最长时间，毫秒
+     */
+    private final long settleTimeout;
+
+    public LoadTestConfig() {
+        this.strategies = split(System.getProperty("loadtest.strategies", "db,lock,lua"));
+        this.users = Integer.getInteger("loadtest.users", 5000);
+        this.threads = Integer.getInteger("loadtest.threads", 200);
+        this.stock = Integer.getInteger("loadtest.stock", 100);
+        this.quantity = Integer.getInteger("loadtest.quantity", 1);
+        this.browseCount = Integer.getInteger("loadtest.browse.count", 1);
+        this.redisHost = System.getProperty("loadtest.redis.host", "");
+        this.redisPort = Integer.getInteger("loadtest.redis.port", 6379);
+        this.httpTimeout = Integer.getInteger("loadtest.http.timeout", 5000);
+        this.settleTimeout = Long.getLong("loadtest.settle.timeout", 30000L);
+    }
+
+    private static List<String> split(String value){
+        List<String> list = new ArrayList<>();
+        for (String item : value.split(",")){
+            if (!item.trim().isEmpty()){
+                list.add(item.trim());
+            }
+        }
+        return list;
+    }
+
+    public boolean isEmbeddedRedis(){
+        return redisHost.isEmpty();
+    }
+
+    /**
+     * 需求量，用于判断是否少卖
+     */
+    public long getDemand(){
+        return (long) users * quantity;
+    }
+
+    public List<String> getStrategies() {
+        return strategies;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public int getBrowseCount() {
+        return browseCount;
+    }
+
+    public String getRedisHost() {
+        return redisHost;
+    }
+
+    public int getRedisPort() {
+        return redisPort;
+    }
+
+    public int getHttpTimeout() {
+        return httpTimeout;
+    }
+
+    public long getSettleTimeout() {
+        return settleTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return "strategies=" + strategies + ", users=" + users + ", threads=" + threads + ", stock=" + stock
+                + ", quantity=" + quantity + ", browseCount=" + browseCount
+                + ", redis=" + (isEmbeddedRedis() ? "embedded" : redisHost + ":" + redisPort);
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 单个下单策略的压测结果：吞吐量、延迟分布、业务码分布以及超卖/少卖/库存一致性校验
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class LoadTestReport {
+    public static final String ENDPOINT_GOODS = "/goods/getSeckillGoods";
+    public static final String ENDPOINT_ORDER = "/order/saveSeckillOrder";
+    /**
+     * 延迟记录上限，单位微秒
+     */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String strategy;
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, LongAdder>> codes = new ConcurrentHashMap<>();
+    private long elapsedNanos;
+    private long initialStock;
+    private long demand;
+    private long orderCount;
+    private long soldQuantity;
+    private long availableStock;
+    /**
+     * Redis中的库存，策略不使用item:stock时为null
+     */
+    private Long redisStock;
+
+    public LoadTestReport(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public void record(String endpoint, int code, long latencyNanos){
+        histograms.computeIfAbsent(endpoint, (key) -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3))
+                .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        codes.computeIfAbsent(endpoint, (key) -> new ConcurrentHashMap<>())
+                .computeIfAbsent(code, (key) -> new LongAdder()).increment();
+    }
+
+    /**
+     * 超卖：卖出数量大于库存，或者数据库库存被扣成负数
+     */
+    public boolean isOversold(){
+        return soldQuantity > initialStock || availableStock < 0 || (redisStock != null && redisStock < 0);
+    }
+
+    /**
+     * 少卖：需求量足够，但库存没有卖完
+     */
+    public boolean isUndersold(){
+        return demand >= initialStock && soldQuantity < initialStock;
+    }
+
+    /**
+     * 数据库库存与订单一致
+     */
+    public boolean isDbConsistent(){
+        return initialStock - soldQuantity == availableStock;
+    }
+
+    /**
+     * Redis库存与数据库库存一致
+     */
+    public boolean isRedisConsistent(){
+        return redisStock == null || redisStock == availableStock;
+    }
+
+    public boolean isPassed(){
+        return !isOversold() && !isUndersold() && isDbConsistent() && isRedisConsistent();
+    }
+
+    public void print(PrintStream out){
+        double seconds = elapsedNanos / 1_000_000_000D;
+        out.println();
+        out.println("==================== place.order.type=" + strategy + " ====================");
+        out.printf("elapsed: %.2fs%n", seconds);
+        out.printf("%-26s %10s %10s %10s %10s %10s %10s %10s%n", "endpoint(us)", "count", "req/s", "p50", "p90", "p99", "p999", "max");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()){
+            Histogram histogram = entry.getValue();
+            out.printf("%-26s %10d %10.1f %10d %10d %10d %10d %10d%n", entry.getKey(), histogram.getTotalCount(),
+                    seconds == 0 ? 0D : histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+        }
+        for (Map.Entry<String, Map<Integer, LongAdder>> entry : new TreeMap<>(codes).entrySet()){
+            StringBuilder builder = new StringBuilder();
+            for (Map.Entry<Integer, LongAdder> code : new TreeMap<>(entry.getValue()).entrySet()){
+                builder.append(code.getKey()).append('=').append(code.getValue().sum()).append(' ');
+            }
+            out.printf("codes %-20s %s%n", entry.getKey(), builder.toString().trim());
+        }
+        out.printf("stock: initial=%d, demand=%d, orders=%d, sold=%d, available_stock=%d, item:stock=%s%n",
+                initialStock, demand, orderCount, soldQuantity, availableStock, redisStock == null ? "n/a" : redisStock);
+        out.printf("oversell: %s, undersell: %s, db consistent: %s, redis consistent: %s%n",
+                isOversold() ? "FAIL" : "ok", isUndersold() ? "FAIL" : "ok",
+                isDbConsistent() ? "ok" : "FAIL", redisStock == null ? "n/a" : (isRedisConsistent() ? "ok" : "FAIL"));
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public void setInitialStock(long initialStock) {
+        this.initialStock = initialStock;
+    }
+
+    public void setDemand(long demand) {
+        this.demand = demand;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public void setSoldQuantity(long soldQuantity) {
+        this.soldQuantity = soldQuantity;
+    }
+
+    public void setAvailableStock(long availableStock) {
+        this.availableStock = availableStock;
+    }
+
+    public void setRedisStock(Long redisStock) {
+        this.redisStock = redisStock;
+    }
+}
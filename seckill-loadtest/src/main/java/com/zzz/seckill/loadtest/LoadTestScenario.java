@@ -0,0 +1,259 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.loadtest;
+
+import com.zzz.seckill.domain.constants.SeckillConstants;
+import com.zzz.seckill.infrastructure.cache.distribute.DistributedCacheService;
+import com.zzz.seckill.infrastructure.shiro.utils.JwtUtils;
+import com.zzz.seckill.starter.SeckillStarter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 单个下单策略的压测场景：启动应用、准备数据、并发下单、等待落库并校验库存
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class LoadTestScenario {
+    private final Logger logger = LoggerFactory.getLogger(LoadTestScenario.class);
+    /**
+     * 支持的下单策略，bucket策略的分桶库存需要单独编排，不在压测范围内
+     */
+    public static final List<String> SUPPORTED_STRATEGIES = Arrays.asList("db", "lock", "lua", "async");
+    /**
+     * 以Redis中的item:stock为准扣减库存的策略
+     */
+    private static final List<String> REDIS_STOCK_STRATEGIES = Arrays.asList("lock", "lua", "async");
+    private static final long ACTIVITY_ID = 1001L;
+    /**
+     * 每个策略使用不同的商品，复用外部Redis时不会读到上一个策略的库存和缓存
+     */
+    private static final long GOODS_ID_BASE = 1001L;
+    private static final long SETTLE_POLL_MILLIS = 200L;
+    private static final int SETTLE_STABLE_ROUNDS = 5;
+
+    private final LoadTestConfig config;
+    private final String strategy;
+    private final String redisHost;
+    private final int redisPort;
+    private final String jdbcUrl;
+    private final long goodsId;
+
+    public LoadTestScenario(LoadTestConfig config, String strategy, String redisHost, int redisPort) {
+        if (!SUPPORTED_STRATEGIES.contains(strategy)){
+            throw new IllegalArgumentException("unsupported place.order.type: " + strategy);
+        }
+        this.config = config;
+        this.strategy = strategy;
+        this.redisHost = redisHost;
+        this.redisPort = redisPort;
+        this.goodsId = GOODS_ID_BASE + SUPPORTED_STRATEGIES.indexOf(strategy);
+        //每个策略使用独立的内存库，DB_CLOSE_DELAY保证连接池重建连接时数据还在
+        this.jdbcUrl = "jdbc:h2:mem:seckill_" + strategy + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    public LoadTestReport run() throws Exception {
+        LoadTestReport report = new LoadTestReport(strategy);
+        report.setInitialStock(config.getStock());
+        report.setDemand(config.getDemand());
+        //保持一个连接到压测结束，用于建表、准备数据和校验
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, "sa", "")){
+            this.initDatabase(connection);
+            ConfigurableApplicationContext context = this.startApplication();
+            try{
+                this.initRedisStock(context);
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                this.drive(new LoadTestClient("http://127.0.0.1:" + port, config.getHttpTimeout()), report);
+                this.settle(connection, report);
+                if (REDIS_STOCK_STRATEGIES.contains(strategy)){
+                    report.setRedisStock(this.getRedisStock(context));
+                }
+            }finally {
+                context.close();
+            }
+        }
+        return report;
+    }
+
+    private void initDatabase(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()){
+            statement.execute("RUNSCRIPT FROM 'classpath:loadtest/schema.sql'");
+        }
+        long now = System.currentTimeMillis();
+        Timestamp startTime = new Timestamp(now - TimeUnit.HOURS.toMillis(1));
+        Timestamp endTime = new Timestamp(now + TimeUnit.HOURS.toMillis(1));
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into seckill_activity(id, activity_name, start_time, end_time, status, activity_desc) values (?, ?, ?, ?, 1, ?)")){
+            statement.setLong(1, ACTIVITY_ID);
+            statement.setString(2, "loadtest");
+            statement.setTimestamp(3, startTime);
+            statement.setTimestamp(4, endTime);
+            statement.setString(5, "loadtest");
+            statement.executeUpdate();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into seckill_goods(id, goods_name, activity_id, start_time, end_time, original_price, activity_price, "
+                        + "initial_stock, available_stock, description, img_url, status, limit_num) values (?, ?, ?, ?, ?, 100, 1, ?, ?, ?, '', 1, ?)")){
+            statement.setLong(1, goodsId);
+            statement.setString(2, "loadtest");
+            statement.setLong(3, ACTIVITY_ID);
+            statement.setTimestamp(4, startTime);
+            statement.setTimestamp(5, endTime);
+            statement.setInt(6, config.getStock());
+            statement.setInt(7, config.getStock());
+            statement.setString(8, "loadtest");
+            statement.setInt(9, config.getQuantity());
+            statement.executeUpdate();
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(){
+        logger.info("LoadTestScenario|启动应用|{}", strategy);
+        return new SpringApplicationBuilder(SeckillStarter.class)
+                .web(WebApplicationType.SERVLET)
+                //命令行参数优先级高于application.properties和jdbc.properties
+                .run("--server.port=0",
+                        "--server.tomcat.accesslog.enabled=false",
+                        "--spring.redis.host=" + redisHost,
+                        "--spring.redis.port=" + redisPort,
+                        "--spring.redis.address=redis://" + redisHost + ":" + redisPort,
+                        "--redis.arrange.type=single",
+                        "--jdbc.url=" + jdbcUrl,
+                        "--jdbc.username=sa",
+                        "--jdbc.password=",
+                        "--jdbc.dbType=h2",
+                        "--message.mq.type=local",
+                        "--place.order.type=" + strategy);
+    }
+
+    private void initRedisStock(ConfigurableApplicationContext context){
+        DistributedCacheService distributedCacheService = context.getBean(DistributedCacheService.class);
+        distributedCacheService.put(this.getStockKey(), config.getStock());
+    }
+
+    private Long getRedisStock(ConfigurableApplicationContext context){
+        Object stock = context.getBean(DistributedCacheService.class).getObject(this.getStockKey());
+        return stock == null ? null : Long.valueOf(String.valueOf(stock));
+    }
+
+    private String getStockKey(){
+        return SeckillConstants.getKey(SeckillConstants.GOODS_ITEM_STOCK_KEY_PREFIX, String.valueOf(goodsId));
+    }
+
+    /**
+     * 每个虚拟用户先浏览商品详情，再下单
+     */
+    private void drive(LoadTestClient client, LoadTestReport report) throws InterruptedException {
+        String[] tokens = new String[config.getUsers()];
+        for (int i = 0; i < tokens.length; i++){
+            tokens[i] = JwtUtils.sign((long) (i + 1));
+        }
+        String goodsPath = LoadTestReport.ENDPOINT_GOODS + "?id=" + goodsId;
+        String orderPath = LoadTestReport.ENDPOINT_ORDER + "?goodsId=" + goodsId + "&activityId=" + ACTIVITY_ID + "&quantity=" + config.getQuantity();
+        //先预热一次商品缓存，避免第一个请求的冷启动计入结果
+        client.get(goodsPath, tokens[0]);
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicInteger cursor = new AtomicInteger();
+        for (int i = 0; i < config.getThreads(); i++){
+            executor.execute(() -> {
+                try{
+                    startLatch.await();
+                }catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                int index;
+                while ((index = cursor.getAndIncrement()) < tokens.length){
+                    for (int j = 0; j < config.getBrowseCount(); j++){
+                        this.call(client, goodsPath, tokens[index], report);
+                    }
+                    this.call(client, orderPath, tokens[index], report);
+                }
+            });
+        }
+        executor.shutdown();
+        long start = System.nanoTime();
+        startLatch.countDown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        report.setElapsedNanos(System.nanoTime() - start);
+    }
+
+    private void call(LoadTestClient client, String path, String token, LoadTestReport report){
+        long start = System.nanoTime();
+        int code = client.get(path, token);
+        report.record(path.substring(0, path.indexOf('?')), code, System.nanoTime() - start);
+    }
+
+    /**
+     * 异步下单、批量保存订单和合并扣减库存都会延迟落库，等待数据库中的订单和库存稳定后再校验
+     */
+    private void settle(Connection connection, LoadTestReport report) throws SQLException, InterruptedException {
+        long deadline = System.currentTimeMillis() + config.getSettleTimeout();
+        long[] last = null;
+        int stableRounds = 0;
+        while (System.currentTimeMillis() < deadline && stableRounds < SETTLE_STABLE_ROUNDS){
+            long[] current = this.snapshot(connection);
+            stableRounds = Arrays.equals(last, current) ? stableRounds + 1 : 0;
+            last = current;
+            Thread.sleep(SETTLE_POLL_MILLIS);
+        }
+        if (stableRounds < SETTLE_STABLE_ROUNDS){
+            logger.warn("LoadTestScenario|等待落库超时|{}", strategy);
+        }
+        report.setOrderCount(last[0]);
+        report.setSoldQuantity(last[1]);
+        report.setAvailableStock(last[2]);
+    }
+
+    private long[] snapshot(Connection connection) throws SQLException {
+        long[] snapshot = new long[3];
+        try (Statement statement = connection.createStatement()){
+            try (ResultSet resultSet = statement.executeQuery("select count(1), coalesce(sum(quantity), 0) from seckill_order where goods_id = " + goodsId)){
+                resultSet.next();
+                snapshot[0] = resultSet.getLong(1);
+                snapshot[1] = resultSet.getLong(2);
+            }
+            try (ResultSet resultSet = statement.executeQuery("select available_stock from seckill_goods where id = " + goodsId)){
+                resultSet.next();
+                snapshot[2] = resultSet.getLong(1);
+            }
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2022-9999 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.zzz.seckill.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author binghe(微信 : hacker_binghe)
+ * @version 1.0.0
+ * @description 端到端压测入口，使用内嵌Redis和H2(MySQL模式)依次压测每种下单策略，不依赖外部环境
+ * mvn -pl seckill-loadtest -am install -DskipTests
+ * mvn -pl seckill-loadtest exec:java -Dloadtest.strategies=db,lock,lua -Dloadtest.users=5000 -Dloadtest.stock=100
+ * @github https://github.com/binghe001
+ * @copyright 公众号: 冰河技术
+ */
+public class SeckillLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(SeckillLoadTest.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        logger.info("SeckillLoadTest|压测参数|{}", config);
+        List<LoadTestReport> reports = new ArrayList<>();
+        for (String strategy : config.getStrategies()){
+            reports.add(run(config, strategy));
+        }
+        for (LoadTestReport report : reports){
+            report.print(System.out);
+        }
+        boolean passed = reports.stream().allMatch(LoadTestReport::isPassed);
+        System.out.println();
+        System.out.println(passed ? "ALL CHECKS PASSED" : "CHECKS FAILED");
+        //应用内的非守护线程不一定随上下文关闭退出，显式结束进程并返回校验结果
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static LoadTestReport run(LoadTestConfig config, String strategy) throws Exception {
+        if (!config.isEmbeddedRedis()){
+            return new LoadTestScenario(config, strategy, config.getRedisHost(), config.getRedisPort()).run();
+        }
+        //每个策略使用新的内嵌Redis，避免上一个策略留下的库存、售罄标记和缓存
+        int port = getFreePort();
+        RedisServer redisServer = new RedisServer(port);
+        redisServer.start();
+        try{
+            return new LoadTestScenario(config, strategy, "127.0.0.1", port).run();
+        }finally {
+            redisServer.stop();
+        }
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)){
+            return serverSocket.getLocalPort();
+        }
+    }
+}
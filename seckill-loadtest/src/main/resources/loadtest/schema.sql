@@ -0,0 +1,54 @@
+-- H2 (MODE=MySQL) copy of environment/config/mysql/init/seckill_init.sql used by the load test
+
+DROP TABLE IF EXISTS seckill_activity;
+CREATE TABLE seckill_activity (
+  id bigint NOT NULL,
+  activity_name varchar(128) NULL DEFAULT '',
+  start_time datetime NULL DEFAULT NULL,
+  end_time datetime NULL DEFAULT NULL,
+  status int NULL DEFAULT 0,
+  activity_desc varchar(255) NULL DEFAULT '',
+  PRIMARY KEY (id)
+);
+
+DROP TABLE IF EXISTS seckill_goods;
+CREATE TABLE seckill_goods (
+  id bigint NOT NULL,
+  goods_name varchar(128) NULL DEFAULT '',
+  activity_id bigint NULL DEFAULT 0,
+  start_time datetime NULL DEFAULT NULL,
+  end_time datetime NULL DEFAULT NULL,
+  original_price decimal(10, 2) NULL DEFAULT 0.00,
+  activity_price decimal(10, 2) NULL DEFAULT 0.00,
+  initial_stock int NULL DEFAULT 0,
+  available_stock int NULL DEFAULT 0,
+  description varchar(255) NULL DEFAULT '',
+  img_url varchar(255) NULL DEFAULT '',
+  status int NULL DEFAULT 0,
+  limit_num int NULL DEFAULT 1,
+  PRIMARY KEY (id)
+);
+
+DROP TABLE IF EXISTS seckill_order;
+CREATE TABLE seckill_order (
+  id bigint NOT NULL,
+  user_id bigint NULL DEFAULT 0,
+  goods_id bigint NULL DEFAULT 0,
+  goods_name varchar(128) NULL DEFAULT '',
+  activity_price decimal(10, 2) NULL DEFAULT 0.00,
+  quantity int NULL DEFAULT 0,
+  order_price decimal(10, 2) NULL DEFAULT 0.00,
+  activity_id bigint NULL DEFAULT 0,
+  status int NULL DEFAULT 0,
+  create_time datetime NULL DEFAULT NULL,
+  PRIMARY KEY (id)
+);
+
+DROP TABLE IF EXISTS seckill_user;
+CREATE TABLE seckill_user (
+  id bigint NOT NULL,
+  user_name varchar(20) NULL DEFAULT '',
+  password varchar(64) NULL DEFAULT '',
+  status int NULL DEFAULT 1,
+  PRIMARY KEY (id)
+);